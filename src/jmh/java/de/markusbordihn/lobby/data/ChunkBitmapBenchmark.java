@@ -0,0 +1,73 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.nbt.ListTag;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChunkBitmapBenchmark {
+
+  private static final int RADIUS = 256;
+
+  private final ChunkBitmap chunkBitmap = new ChunkBitmap();
+  private ListTag chunkBitmapTag;
+  private int chunkIndex = 0;
+
+  @Setup
+  public void setup() {
+    // Mark every second chunk in a 512x512 chunk area as scrubbed.
+    for (int x = -RADIUS; x < RADIUS; x++) {
+      for (int z = -RADIUS; z < RADIUS; z += 2) {
+        this.chunkBitmap.add(x, z);
+      }
+    }
+    this.chunkBitmapTag = this.chunkBitmap.save();
+  }
+
+  @Benchmark
+  public boolean contains() {
+    int index = this.chunkIndex++;
+    return this.chunkBitmap.contains((index & 511) - RADIUS, ((index >> 9) & 511) - RADIUS);
+  }
+
+  @Benchmark
+  public ListTag save() {
+    return this.chunkBitmap.save();
+  }
+
+  @Benchmark
+  public ChunkBitmap load() {
+    ChunkBitmap loadedChunkBitmap = new ChunkBitmap();
+    loadedChunkBitmap.load(this.chunkBitmapTag);
+    return loadedChunkBitmap;
+  }
+}
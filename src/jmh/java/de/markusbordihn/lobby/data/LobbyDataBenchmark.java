@@ -0,0 +1,82 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.minecraft.nbt.CompoundTag;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LobbyDataBenchmark {
+
+  private static final String[] DIMENSIONS = {"lobby:lobby", "lobby:mining", "lobby:fishing",
+      "lobby:gaming", "lobby:void", "minecraft:overworld"};
+
+  @Param({"1000", "100000"})
+  public int scrubbedChunks;
+
+  private LobbyData lobbyData;
+  private CompoundTag lobbyDataTag;
+
+  @Setup
+  public void setup() {
+    this.lobbyData = new LobbyData();
+    for (String dimension : DIMENSIONS) {
+      this.lobbyData.setDimensionLoaded(dimension, true);
+    }
+
+    // Mark every second chunk in a square area around the spawn as scrubbed.
+    ChunkBitmap chunkBitmap = this.lobbyData.getScrubbedChunks();
+    int size = (int) Math.ceil(Math.sqrt(this.scrubbedChunks * 2.0));
+    for (int i = 0; chunkBitmap.size() < this.scrubbedChunks; i += 2) {
+      chunkBitmap.add(i % size - size / 2, i / size - size / 2);
+    }
+    this.lobbyData.setDirty(LobbyData.Section.SCRUBBED_CHUNKS);
+    this.lobbyDataTag = this.lobbyData.save(new CompoundTag());
+  }
+
+  @Benchmark
+  public CompoundTag save() {
+    this.lobbyData.setDirty(LobbyData.Section.LOADED_DIMENSIONS);
+    this.lobbyData.setDirty(LobbyData.Section.SCRUBBED_CHUNKS);
+    return this.lobbyData.save(new CompoundTag());
+  }
+
+  @Benchmark
+  public CompoundTag saveUnchanged() {
+    return this.lobbyData.save(new CompoundTag());
+  }
+
+  @Benchmark
+  public LobbyData load() {
+    return LobbyData.load(this.lobbyDataTag);
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlayerTeleportStoreBenchmark {
+
+  @Param({"1000", "200000"})
+  public int players;
+
+  private final PlayerTeleportStore playerTeleportStore = new PlayerTeleportStore();
+  private Path dataPath;
+  private int playerIndex = 0;
+
+  @Setup
+  public void setup() throws IOException {
+    this.dataPath = Files.createTempDirectory("lobby-benchmark");
+    long[] packedUUIDs = new long[this.players * 2];
+    for (int i = 0; i < this.players; i++) {
+      packedUUIDs[i * 2] = i * 0x5DEECE66DL;
+      packedUUIDs[i * 2 + 1] = i;
+    }
+    this.playerTeleportStore.addLegacy(packedUUIDs);
+    this.playerTeleportStore.open(this.dataPath);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    this.playerTeleportStore.close(0);
+    try (var files = Files.list(this.dataPath)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(this.dataPath);
+  }
+
+  @Benchmark
+  public boolean containsKnownPlayer() {
+    int index = this.playerIndex++ % this.players;
+    return this.playerTeleportStore.contains(new UUID(index * 0x5DEECE66DL, index), 0);
+  }
+
+  @Benchmark
+  public boolean containsNewPlayer() {
+    int index = this.players + this.playerIndex++;
+    return this.playerTeleportStore.contains(new UUID(index * 0x5DEECE66DL, index), 0);
+  }
+}
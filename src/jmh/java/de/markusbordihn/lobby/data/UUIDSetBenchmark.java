@@ -0,0 +1,70 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UUIDSetBenchmark {
+
+  @Param({"1000", "200000"})
+  public int players;
+
+  private final UUIDSet uuidSet = new UUIDSet();
+  private long[] packedUUIDs;
+  private int playerIndex = 0;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < this.players; i++) {
+      this.uuidSet.add(i * 0x5DEECE66DL, i);
+    }
+    this.packedUUIDs = this.uuidSet.toLongArray();
+  }
+
+  @Benchmark
+  public boolean contains() {
+    int index = this.playerIndex++ % (this.players * 2);
+    return this.uuidSet.contains(index * 0x5DEECE66DL, index);
+  }
+
+  @Benchmark
+  public long[] save() {
+    return this.uuidSet.toLongArray();
+  }
+
+  @Benchmark
+  public UUIDSet load() {
+    UUIDSet loadedUUIDSet = new UUIDSet();
+    loadedUUIDSet.load(this.packedUUIDs);
+    return loadedUUIDSet;
+  }
+}
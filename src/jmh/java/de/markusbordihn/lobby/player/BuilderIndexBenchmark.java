@@ -0,0 +1,73 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BuilderIndexBenchmark {
+
+  @Param({"10", "1000"})
+  public int builders;
+
+  private BuilderIndex builderIndex;
+  private UUID builderUUID;
+  private UUID playerUUID;
+
+  @Setup
+  public void setup() {
+    List<String> builderList = new ArrayList<>();
+    for (int i = 0; i < this.builders; i++) {
+      builderList.add(i % 2 == 0 ? new UUID(i, i).toString() : "Builder" + i);
+    }
+    this.builderIndex = BuilderIndex.of(builderList);
+    this.builderUUID = new UUID(0, 0);
+    this.playerUUID = new UUID(-1, -1);
+  }
+
+  @Benchmark
+  public boolean containsBuilderUUID() {
+    return this.builderIndex.contains(this.builderUUID, "Player");
+  }
+
+  @Benchmark
+  public boolean containsBuilderName() {
+    return this.builderIndex.contains(this.playerUUID, "Builder1");
+  }
+
+  @Benchmark
+  public boolean containsNoBuilder() {
+    return this.builderIndex.contains(this.playerUUID, "Player");
+  }
+}
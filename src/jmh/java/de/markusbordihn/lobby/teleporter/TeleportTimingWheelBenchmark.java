@@ -0,0 +1,85 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.teleporter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Schedules a burst of pending teleports, e.g. after a lobby-wide event ends, and advances the
+ * wheel until all of them are due.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TeleportTimingWheelBenchmark {
+
+  private static final int TELEPORT_DELAY = 100;
+
+  @Param({"10", "1000"})
+  public int players;
+
+  private final TeleportTimingWheel<Entry> timingWheel = new TeleportTimingWheel<>();
+  private Entry[] pendingTeleports;
+  private long tick = 0;
+
+  /** Wheel entry without a player, the wheel itself only uses the scheduled tick. */
+  private static class Entry implements TeleportTimingWheel.Entry {
+
+    private long scheduledTick;
+
+    @Override
+    public long getScheduledTick() {
+      return this.scheduledTick;
+    }
+
+    @Override
+    public void setScheduledTick(long scheduledTick) {
+      this.scheduledTick = scheduledTick;
+    }
+  }
+
+  @Setup
+  public void setup() {
+    this.pendingTeleports = new Entry[this.players];
+    for (int i = 0; i < this.players; i++) {
+      this.pendingTeleports[i] = new Entry();
+    }
+  }
+
+  @Benchmark
+  public void scheduleAndAdvance(Blackhole blackhole) {
+    for (int i = 0; i < this.players; i++) {
+      this.timingWheel.schedule(this.pendingTeleports[i], this.tick + 1 + (i % TELEPORT_DELAY));
+    }
+    while (!this.timingWheel.isEmpty()) {
+      this.timingWheel.advance(++this.tick, blackhole::consume);
+    }
+  }
+}
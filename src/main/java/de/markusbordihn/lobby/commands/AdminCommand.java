@@ -0,0 +1,83 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.commands;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.dimension.MiningChunkScrubber;
+import de.markusbordihn.lobby.stats.LobbyStats;
+
+public class AdminCommand extends CustomCommand {
+
+  private static final int PERMISSION_LEVEL = 2;
+
+  private static final AdminCommand command = new AdminCommand();
+
+  public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+    log.info("# Register admin commands /{} scrubber and /{} stats ...", Constants.MOD_COMMAND,
+        Constants.MOD_COMMAND);
+    dispatcher.register(Commands.literal(Constants.MOD_COMMAND)
+        .then(Commands.literal("scrubber").requires(cs -> cs.hasPermission(PERMISSION_LEVEL))
+            .executes(command)
+            .then(Commands.literal("reset").executes(AdminCommand::resetScrubber)))
+        .then(Commands.literal("stats").requires(cs -> cs.hasPermission(PERMISSION_LEVEL))
+            .executes(AdminCommand::showStats)
+            .then(Commands.literal("reset").executes(AdminCommand::resetStats))));
+  }
+
+  @Override
+  public int run(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+    sendFeedback(context,
+        String.format("Mining chunk scrubber: %s queued chunks, %s scrubbed chunks",
+            MiningChunkScrubber.getQueueSize(), MiningChunkScrubber.getScrubbedChunks()));
+    return 0;
+  }
+
+  public static int resetScrubber(CommandContext<CommandSourceStack> context) {
+    int scrubbedChunks = MiningChunkScrubber.resetScrubbedChunks();
+    sendFeedback(context, String.format(
+        "Reset %s scrubbed mining chunks, they will be scrubbed again on their next load.",
+        scrubbedChunks));
+    return 0;
+  }
+
+  public static int showStats(CommandContext<CommandSourceStack> context) {
+    if (!LobbyStats.isEnabled()) {
+      sendFeedback(context,
+          "Statistics are disabled, enable them with statsEnabled in the config.");
+    }
+    for (String line : LobbyStats.getSummary()) {
+      sendFeedback(context, line);
+    }
+    return 0;
+  }
+
+  public static int resetStats(CommandContext<CommandSourceStack> context) {
+    LobbyStats.reset();
+    sendFeedback(context, "Statistics were reset.");
+    return 0;
+  }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.commands;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+/**
+ * Shared cool-down of all teleport commands, with one entry per player and one primitive deadline
+ * slot per command. Entries are removed on logout and by a periodic sweep once all of their
+ * deadlines have passed.
+ */
+@EventBusSubscriber
+public class CommandCoolDown {
+
+  private static final int SWEEP_TICKS = 1200;
+
+  private static final Object2IntMap<String> slots = new Object2IntOpenHashMap<>();
+  private static Map<UUID, long[]> coolDownPlayerMap = new HashMap<>();
+  private static int ticker = 0;
+
+  protected CommandCoolDown() {}
+
+  @SubscribeEvent
+  public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    coolDownPlayerMap = new HashMap<>();
+  }
+
+  @SubscribeEvent
+  public static void handlePlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event) {
+    coolDownPlayerMap.remove(event.getEntity().getUUID());
+  }
+
+  @SubscribeEvent
+  public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
+    if (event.phase == TickEvent.Phase.END || ticker++ < SWEEP_TICKS) {
+      return;
+    }
+    ticker = 0;
+    if (!coolDownPlayerMap.isEmpty()) {
+      sweep(System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * @return stable slot for the given command id, which is used for all players.
+   */
+  public static synchronized int getSlot(String commandId) {
+    if (!slots.containsKey(commandId)) {
+      slots.put(commandId, slots.size());
+    }
+    return slots.getInt(commandId);
+  }
+
+  /**
+   * Starts the cool-down for the given slot, if there is no active cool-down.
+   *
+   * @return 0 if the cool-down was started, otherwise the remaining seconds of the active one.
+   */
+  public static long tryAcquire(UUID uuid, int slot, int coolDownSeconds) {
+    long currentTime = System.currentTimeMillis();
+    long[] deadlines = coolDownPlayerMap.get(uuid);
+    if (deadlines == null || deadlines.length <= slot) {
+      deadlines = deadlines == null ? new long[slot + 1] : Arrays.copyOf(deadlines, slot + 1);
+      coolDownPlayerMap.put(uuid, deadlines);
+    } else if (deadlines[slot] > currentTime) {
+      return (deadlines[slot] - currentTime + 999) / 1000;
+    }
+    deadlines[slot] = currentTime + coolDownSeconds * 1000L;
+    return 0;
+  }
+
+  public static int size() {
+    return coolDownPlayerMap.size();
+  }
+
+  private static void sweep(long currentTime) {
+    Iterator<long[]> iterator = coolDownPlayerMap.values().iterator();
+    while (iterator.hasNext()) {
+      boolean expired = true;
+      for (long deadline : iterator.next()) {
+        if (deadline > currentTime) {
+          expired = false;
+          break;
+        }
+      }
+      if (expired) {
+        iterator.remove();
+      }
+    }
+  }
+}
@@ -48,12 +48,10 @@ public class CommandManager {
   public static void handleRegisterCommandsEvent(RegisterCommandsEvent event) {
     log.info("Registering commands for {} ...", Constants.MOD_NAME);
     CommandDispatcher<CommandSourceStack> commandDispatcher = event.getDispatcher();
-    FishingCommand.register(commandDispatcher);
-    GamingCommand.register(commandDispatcher);
-    LobbyCommand.register(commandDispatcher);
-    MiningCommand.register(commandDispatcher);
-    SpawnCommand.register(commandDispatcher);
-    VoidCommand.register(commandDispatcher);
+    TeleportCommand.register(commandDispatcher);
+
+    // Admin sub-commands could be merged into an existing /lobby node, so register them last.
+    AdminCommand.register(commandDispatcher);
   }
 
   public static void executeServerCommand(String command) {
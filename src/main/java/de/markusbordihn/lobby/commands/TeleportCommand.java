@@ -0,0 +1,153 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.commands;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+import de.markusbordihn.lobby.dimension.ManagedDimensionRegistry;
+import de.markusbordihn.lobby.teleporter.PlayerTeleportManager;
+
+/**
+ * Teleport command for a managed dimension, one instance per enabled dimension or hub. The
+ * feedback components are built once per config snapshot and shared between all invocations.
+ */
+public class TeleportCommand extends CustomCommand {
+
+  private final String dimensionId;
+  private final int coolDownSlot;
+  private volatile Feedback feedback = null;
+
+  private TeleportCommand(String dimensionId) {
+    this.dimensionId = dimensionId;
+    this.coolDownSlot = CommandCoolDown.getSlot(dimensionId);
+  }
+
+  public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+    for (ManagedDimension managedDimension : ManagedDimensionRegistry.get().getAll()) {
+      if (!managedDimension.isEnabled()) {
+        continue;
+      }
+      String dimensionId = managedDimension.getId();
+      registerCommand(managedDimension.getCommandName(), managedDimension.getDimensionName(),
+          managedDimension.getSettings().commandPermissionLevel);
+      dispatcher.register(Commands.literal(managedDimension.getCommandName())
+          .requires(cs -> cs.hasPermission(getPermissionLevel(dimensionId)))
+          .executes(new TeleportCommand(dimensionId)));
+    }
+  }
+
+  private static int getPermissionLevel(String dimensionId) {
+    ManagedDimension managedDimension = ManagedDimensionRegistry.get().getById(dimensionId);
+    return managedDimension != null ? managedDimension.getSettings().commandPermissionLevel : 4;
+  }
+
+  @Override
+  public int run(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+    ServerPlayer player = context.getSource().getPlayerOrException();
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    Feedback commandFeedback = getFeedback(config);
+    if (commandFeedback == null) {
+      return 0;
+    }
+    ManagedDimension managedDimension = commandFeedback.managedDimension;
+
+    // Handle cool-down time of command to avoid command misusage.
+    long coolDownRemaining = CommandCoolDown.tryAcquire(player.getUUID(), this.coolDownSlot,
+        config.generalCommandCoolDown);
+    if (coolDownRemaining > 0) {
+      sendFeedback(context, Component.translatable(Constants.TELEPORT_FAILED_COOLDOWN,
+          managedDimension.getDimensionName(), coolDownRemaining).withStyle(ChatFormatting.RED));
+      return 0;
+    }
+
+    // Provide feedback to the player for their teleporter request.
+    ServerLevel dimension = DimensionManager.getDimension(managedDimension);
+    if (dimension == null) {
+      sendFeedback(context, commandFeedback.unableToTeleport);
+    } else if (!managedDimension.getSettings().restrictCommand
+        || player.getLevel() != dimension) {
+      if (config.isTeleportDelayEnabled()) {
+        sendFeedback(context, commandFeedback.teleportToIn);
+        PlayerTeleportManager.teleportPlayerTo(player, managedDimension);
+      } else {
+        sendFeedback(context, commandFeedback.teleportTo);
+        DimensionManager.teleportTo(player, managedDimension);
+      }
+    } else {
+      sendFeedback(context, commandFeedback.alreadyInDimension);
+    }
+    return 0;
+  }
+
+  private Feedback getFeedback(LobbyConfigSnapshot config) {
+    Feedback commandFeedback = this.feedback;
+    if (commandFeedback != null && commandFeedback.config == config) {
+      return commandFeedback;
+    }
+    ManagedDimension managedDimension = ManagedDimensionRegistry.get().getById(this.dimensionId);
+    if (managedDimension == null || !managedDimension.isEnabled()) {
+      return null;
+    }
+    commandFeedback = new Feedback(config, managedDimension);
+    this.feedback = commandFeedback;
+    return commandFeedback;
+  }
+
+  /**
+   * Pre-built feedback components for a single config snapshot.
+   */
+  private static final class Feedback {
+
+    private final LobbyConfigSnapshot config;
+    private final ManagedDimension managedDimension;
+    private final Component teleportTo;
+    private final Component teleportToIn;
+    private final Component alreadyInDimension;
+    private final Component unableToTeleport;
+
+    private Feedback(LobbyConfigSnapshot config, ManagedDimension managedDimension) {
+      String dimensionName = managedDimension.getDimensionName();
+      this.config = config;
+      this.managedDimension = managedDimension;
+      this.teleportTo = Component.translatable(Constants.TELEPORT_TO_MESSAGE, dimensionName)
+          .withStyle(ChatFormatting.GREEN);
+      this.teleportToIn = Component.translatable(Constants.TELEPORT_TO_IN_MESSAGE, dimensionName,
+          config.teleportDelayCounter).withStyle(ChatFormatting.GREEN);
+      this.alreadyInDimension = Component
+          .translatable(Constants.TELEPORT_FAILED_ALREADY_IN_DIMENSION_MESSAGE, dimensionName)
+          .withStyle(ChatFormatting.YELLOW);
+      this.unableToTeleport = Component.translatable(Constants.UNABLE_TO_TELEPORT_MESSAGE,
+          dimensionName, managedDimension.getDimension());
+    }
+  }
+}
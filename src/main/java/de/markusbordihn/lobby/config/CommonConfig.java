@@ -28,11 +28,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import net.minecraftforge.common.ForgeConfigSpec;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.config.ModConfigEvent;
 
 import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.teleporter.LandingPadSelector;
 
 @EventBusSubscriber(bus = EventBusSubscriber.Bus.MOD)
 public final class CommonConfig {
@@ -54,16 +57,39 @@ public final class CommonConfig {
     ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, commonSpec);
   }
 
+  @SubscribeEvent
+  public static void handleModConfigLoadingEvent(ModConfigEvent.Loading event) {
+    if (event.getConfig().getSpec() == commonSpec) {
+      log.info("Loading {} common config snapshot ...", Constants.MOD_NAME);
+      LobbyConfigSnapshot.rebuild();
+    }
+  }
+
+  @SubscribeEvent
+  public static void handleModConfigReloadingEvent(ModConfigEvent.Reloading event) {
+    if (event.getConfig().getSpec() == commonSpec) {
+      log.info("Reloading {} common config snapshot ...", Constants.MOD_NAME);
+      LobbyConfigSnapshot.rebuild();
+    }
+  }
+
   public static class Config {
 
     public final ForgeConfigSpec.IntValue generalCommandCoolDown;
     public final ForgeConfigSpec.BooleanValue generalDefaultToLobby;
     public final ForgeConfigSpec.BooleanValue generalDefaultToLobbyOnce;
     public final ForgeConfigSpec.BooleanValue generalDefaultToLobbyAlways;
+    public final ForgeConfigSpec.IntValue generalDefaultToLobbyOnceExpiry;
+    public final ForgeConfigSpec.IntValue generalTransferMaxPerTick;
+    public final ForgeConfigSpec.IntValue generalTransferTargetTickTime;
+    public final ForgeConfigSpec.IntValue generalDecorativeFreezeRadius;
 
     public final ForgeConfigSpec.BooleanValue teleportDelayCounterVisible;
     public final ForgeConfigSpec.BooleanValue teleportDelayEnabled;
     public final ForgeConfigSpec.IntValue teleportDelayCounter;
+    public final ForgeConfigSpec.IntValue teleportWarmChunkRadius;
+    public final ForgeConfigSpec.IntValue teleportWarmIdleMinutes;
+    public final ForgeConfigSpec.EnumValue<LandingPadSelector.Mode> teleportLandingPadSelector;
 
     public final ForgeConfigSpec.BooleanValue defaultEnabled;
     public final ForgeConfigSpec.ConfigValue<String> defaultDimension;
@@ -78,6 +104,7 @@ public final class CommonConfig {
     public final ForgeConfigSpec.IntValue defaultSpawnPointX;
     public final ForgeConfigSpec.IntValue defaultSpawnPointY;
     public final ForgeConfigSpec.IntValue defaultSpawnPointZ;
+    public final ForgeConfigSpec.ConfigValue<List<String>> defaultLandingPads;
 
     public final ForgeConfigSpec.BooleanValue lobbyEnabled;
     public final ForgeConfigSpec.ConfigValue<String> lobbyDimension;
@@ -90,6 +117,7 @@ public final class CommonConfig {
     public final ForgeConfigSpec.IntValue lobbySpawnPointX;
     public final ForgeConfigSpec.IntValue lobbySpawnPointY;
     public final ForgeConfigSpec.IntValue lobbySpawnPointZ;
+    public final ForgeConfigSpec.ConfigValue<List<String>> lobbyLandingPads;
     public final ForgeConfigSpec.ConfigValue<List<String>> lobbyBuilderList;
 
     public final ForgeConfigSpec.BooleanValue miningEnabled;
@@ -103,10 +131,12 @@ public final class CommonConfig {
     public final ForgeConfigSpec.BooleanValue miningDisableMinecartChestSpawning;
     public final ForgeConfigSpec.BooleanValue miningRemoveLootChest;
     public final ForgeConfigSpec.BooleanValue miningRemoveSpawner;
+    public final ForgeConfigSpec.IntValue miningScrubChunksPerTick;
     public final ForgeConfigSpec.BooleanValue miningUseCustomSpawnPoint;
     public final ForgeConfigSpec.IntValue miningSpawnPointX;
     public final ForgeConfigSpec.IntValue miningSpawnPointY;
     public final ForgeConfigSpec.IntValue miningSpawnPointZ;
+    public final ForgeConfigSpec.ConfigValue<List<String>> miningLandingPads;
 
     public final ForgeConfigSpec.BooleanValue fishingEnabled;
     public final ForgeConfigSpec.ConfigValue<String> fishingDimension;
@@ -119,6 +149,7 @@ public final class CommonConfig {
     public final ForgeConfigSpec.IntValue fishingSpawnPointX;
     public final ForgeConfigSpec.IntValue fishingSpawnPointY;
     public final ForgeConfigSpec.IntValue fishingSpawnPointZ;
+    public final ForgeConfigSpec.ConfigValue<List<String>> fishingLandingPads;
     public final ForgeConfigSpec.ConfigValue<List<String>> fishingBuilderList;
 
     public final ForgeConfigSpec.BooleanValue gamingEnabled;
@@ -132,6 +163,7 @@ public final class CommonConfig {
     public final ForgeConfigSpec.IntValue gamingSpawnPointX;
     public final ForgeConfigSpec.IntValue gamingSpawnPointY;
     public final ForgeConfigSpec.IntValue gamingSpawnPointZ;
+    public final ForgeConfigSpec.ConfigValue<List<String>> gamingLandingPads;
     public final ForgeConfigSpec.ConfigValue<List<String>> gamingBuilderList;
 
     public final ForgeConfigSpec.BooleanValue voidEnabled;
@@ -145,8 +177,16 @@ public final class CommonConfig {
     public final ForgeConfigSpec.IntValue voidSpawnPointX;
     public final ForgeConfigSpec.IntValue voidSpawnPointY;
     public final ForgeConfigSpec.IntValue voidSpawnPointZ;
+    public final ForgeConfigSpec.ConfigValue<List<String>> voidLandingPads;
     public final ForgeConfigSpec.ConfigValue<List<String>> voidBuilderList;
 
+    public final ForgeConfigSpec.ConfigValue<List<String>> spawnPolicyRules;
+    public final ForgeConfigSpec.ConfigValue<List<String>> spawnPopulationCaps;
+
+    public final ForgeConfigSpec.BooleanValue statsEnabled;
+    public final ForgeConfigSpec.IntValue statsLogInterval;
+    public final ForgeConfigSpec.IntValue statsMetricsPort;
+
     Config(ForgeConfigSpec.Builder builder) {
       builder.comment(Constants.MOD_NAME);
 
@@ -162,6 +202,18 @@ public final class CommonConfig {
               .define("generalDefaultToLobbyOnce", false);
       generalDefaultToLobbyAlways = builder.comment("Always teleport player to the lobby!")
           .define("generalDefaultToLobbyAlways", false);
+      generalDefaultToLobbyOnceExpiry = builder.comment(
+          "Days of absence after which a player is teleported to the lobby once again. (0 = never)")
+          .defineInRange("generalDefaultToLobbyOnceExpiry", 0, 0, 3650);
+      generalTransferMaxPerTick = builder.comment(
+          "Max. number of automatic transfers to the lobby per tick, further players are queued.")
+          .defineInRange("generalTransferMaxPerTick", 2, 1, 20);
+      generalTransferTargetTickTime = builder.comment(
+          "Average tick time in ms above which automatic transfers to the lobby are slowed down.")
+          .defineInRange("generalTransferTargetTickTime", 40, 10, 200);
+      generalDecorativeFreezeRadius = builder.comment(
+          "Decorative villagers, cats and fish are frozen without a player in this radius. (0 = disabled)")
+          .defineInRange("generalDecorativeFreezeRadius", 32, 0, 128);
       builder.pop();
 
       builder.push("Teleport");
@@ -173,6 +225,15 @@ public final class CommonConfig {
       teleportDelayCounter =
           builder.comment("Teleport delay in seconds a player needs to stand still to teleport.")
               .defineInRange("teleportDelayCounter", 10, 0, 60);
+      teleportWarmChunkRadius = builder.comment(
+          "Radius in chunks which is kept loaded around the spawn points of the managed dimensions. (0 = disabled)")
+          .defineInRange("teleportWarmChunkRadius", 2, 0, 8);
+      teleportWarmIdleMinutes = builder.comment(
+          "Minutes without players after which the chunks of a dimension are no longer kept loaded. (0 = disabled)")
+          .defineInRange("teleportWarmIdleMinutes", 10, 0, 1440);
+      teleportLandingPadSelector = builder.comment(
+          "Selection of the landing pad for arrivals, if a dimension has additional landing pads.")
+          .defineEnum("teleportLandingPadSelector", LandingPadSelector.Mode.FEWEST_PLAYERS);
       builder.pop();
 
       builder.push("Default Dimension");
@@ -199,6 +260,9 @@ public final class CommonConfig {
       defaultSpawnPointX = builder.defineInRange("defaultSpawnPointX", 68, -1000, 1000);
       defaultSpawnPointY = builder.defineInRange("defaultSpawnPointY", 65, -1000, 1000);
       defaultSpawnPointZ = builder.defineInRange("defaultSpawnPointZ", -89, -1000, 1000);
+      defaultLandingPads = builder.comment(
+          "Additional landing pads as \"x y z\", arrivals are spread over the spawn point and these positions.")
+          .define("defaultLandingPads", new ArrayList<String>());
       builder.pop();
 
       builder.push("Lobby Dimension");
@@ -217,8 +281,11 @@ public final class CommonConfig {
       lobbySpawnPointX = builder.defineInRange("lobbySpawnPointX", 9, -1000, 1000);
       lobbySpawnPointY = builder.defineInRange("lobbySpawnPointY", 9, -1000, 1000);
       lobbySpawnPointZ = builder.defineInRange("lobbySpawnPointZ", 9, -1000, 1000);
+      lobbyLandingPads = builder.comment(
+          "Additional landing pads as \"x y z\", arrivals are spread over the spawn point and these positions.")
+          .define("lobbyLandingPads", new ArrayList<String>());
       lobbyBuilderList = builder.comment(
-          "List of builders which are automatically switched to the creative mode inside the lobby dimension.")
+          "List of builders (player names or UUIDs) which are automatically switched to the creative mode inside the lobby dimension.")
           .define("lobbyBuilderList", new ArrayList<String>(Arrays.asList("")));
       builder.pop();
 
@@ -239,10 +306,16 @@ public final class CommonConfig {
           builder.define("miningDisableMinecartChestSpawning", true);
       miningRemoveLootChest = builder.define("miningRemoveLootChest", true);
       miningRemoveSpawner = builder.define("miningRemoveSpawner", true);
+      miningScrubChunksPerTick = builder.comment(
+          "Max. number of loaded chunks per tick which are checked for spawners and loot chests.")
+          .defineInRange("miningScrubChunksPerTick", 8, 1, 256);
       miningUseCustomSpawnPoint = builder.define("miningUseCustomSpawnPoint", false);
       miningSpawnPointX = builder.defineInRange("miningSpawnPointX", 200, -1000, 1000);
       miningSpawnPointY = builder.defineInRange("miningSpawnPointY", 11, -1000, 1000);
       miningSpawnPointZ = builder.defineInRange("miningSpawnPointZ", 558, -1000, 1000);
+      miningLandingPads = builder.comment(
+          "Additional landing pads as \"x y z\", arrivals are spread over the spawn point and these positions.")
+          .define("miningLandingPads", new ArrayList<String>());
       builder.pop();
 
       builder.push("Fishing Dimension");
@@ -262,8 +335,11 @@ public final class CommonConfig {
       fishingSpawnPointX = builder.defineInRange("fishingSpawnPointX", 42, -1000, 1000);
       fishingSpawnPointY = builder.defineInRange("fishingSpawnPointY", 51, -1000, 1000);
       fishingSpawnPointZ = builder.defineInRange("fishingSpawnPointZ", 12, -1000, 1000);
+      fishingLandingPads = builder.comment(
+          "Additional landing pads as \"x y z\", arrivals are spread over the spawn point and these positions.")
+          .define("fishingLandingPads", new ArrayList<String>());
       fishingBuilderList = builder.comment(
-          "List of builders which are automatically switched to the creative mode inside the fishing dimension.")
+          "List of builders (player names or UUIDs) which are automatically switched to the creative mode inside the fishing dimension.")
           .define("fishingBuilderList", new ArrayList<String>(Arrays.asList("")));
       builder.pop();
 
@@ -283,8 +359,11 @@ public final class CommonConfig {
       gamingSpawnPointX = builder.defineInRange("gamingSpawnPointX", 9, -1000, 1000);
       gamingSpawnPointY = builder.defineInRange("gamingSpawnPointY", 9, -1000, 1000);
       gamingSpawnPointZ = builder.defineInRange("gamingSpawnPointZ", 9, -1000, 1000);
+      gamingLandingPads = builder.comment(
+          "Additional landing pads as \"x y z\", arrivals are spread over the spawn point and these positions.")
+          .define("gamingLandingPads", new ArrayList<String>());
       gamingBuilderList = builder.comment(
-          "List of builders which are automatically switched to the creative mode inside the gaming dimension.")
+          "List of builders (player names or UUIDs) which are automatically switched to the creative mode inside the gaming dimension.")
           .define("gamingBuilderList", new ArrayList<String>(Arrays.asList("")));
       builder.pop();
 
@@ -304,11 +383,37 @@ public final class CommonConfig {
       voidSpawnPointX = builder.defineInRange("voidSpawnPointX", 9, -1000, 1000);
       voidSpawnPointY = builder.defineInRange("voidSpawnPointY", 9, -1000, 1000);
       voidSpawnPointZ = builder.defineInRange("voidSpawnPointZ", 9, -1000, 1000);
+      voidLandingPads = builder.comment(
+          "Additional landing pads as \"x y z\", arrivals are spread over the spawn point and these positions.")
+          .define("voidLandingPads", new ArrayList<String>());
       voidBuilderList = builder.comment(
-          "List of builders which are automatically switched to the creative mode inside the void dimension.")
+          "List of builders (player names or UUIDs) which are automatically switched to the creative mode inside the void dimension.")
           .define("voidBuilderList", new ArrayList<String>(Arrays.asList("")));
       builder.pop();
 
+      builder.push("Spawn Policy");
+      spawnPolicyRules = builder.comment(
+          "Spawn rules as \"<dimension> <allow|deny> <entity|#tag|*> [spawn type|*] [x1 y1 z1 x2 y2 z2]\", the first matching rule of a dimension decides.",
+          "Example: [\"fishing allow #minecraft:axolotl_hunt_targets * 0 40 0 60 64 30\", \"fishing deny *\"]")
+          .define("spawnPolicyRules", new ArrayList<String>());
+      spawnPopulationCaps = builder.comment(
+          "Max. number of entities per category as \"<dimension> <category> <max>\", further spawns are denied.",
+          "Example: [\"gaming monster 50\", \"void creature 30\"]")
+          .define("spawnPopulationCaps", new ArrayList<String>());
+      builder.pop();
+
+      builder.push("Statistics");
+      statsEnabled = builder.comment(
+          "Enables timing and counters for the lobby event handlers, shown with /lobby stats.")
+          .define("statsEnabled", false);
+      statsLogInterval = builder.comment(
+          "Interval in minutes for the statistics summary in the server log, 0 disables the summary.")
+          .defineInRange("statsLogInterval", 15, 0, 1440);
+      statsMetricsPort = builder.comment(
+          "Port for the Prometheus metrics endpoint http://127.0.0.1:<port>/metrics, 0 disables the endpoint.")
+          .defineInRange("statsMetricsPort", 0, 0, 65535);
+      builder.pop();
+
     }
   }
 
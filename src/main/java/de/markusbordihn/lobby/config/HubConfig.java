@@ -0,0 +1,142 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraftforge.fml.loading.FMLPaths;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot.DimensionSettings;
+
+/**
+ * Optional additional hub dimensions from the "lobby-hubs.json" file in the config folder, like:
+ *
+ * <pre>
+ * {"hubs": [{"id": "halloween", "dimension": "example:halloween", "name": "Halloween",
+ *   "command": "halloween", "permissionLevel": 0, "restrictCommand": true,
+ *   "disableMobSpawning": true, "spawnPoint": [0, 64, 0], "builders": ["PlayerName"],
+ *   "landingPads": [[16, 64, 0], [-16, 64, 0]]}]}
+ * </pre>
+ */
+public final class HubConfig {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  public static final String FILE_NAME = "lobby-hubs.json";
+
+  private HubConfig() {}
+
+  public static Map<String, DimensionSettings> load() {
+    Path hubConfigFile = FMLPaths.CONFIGDIR.get().resolve(FILE_NAME);
+    if (!Files.isRegularFile(hubConfigFile)) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, DimensionSettings> hubSettings = new LinkedHashMap<>();
+    try (Reader reader = Files.newBufferedReader(hubConfigFile, StandardCharsets.UTF_8)) {
+      JsonObject hubConfig = JsonParser.parseReader(reader).getAsJsonObject();
+      JsonArray hubs = hubConfig.getAsJsonArray("hubs");
+      if (hubs == null) {
+        return Collections.emptyMap();
+      }
+      for (JsonElement hubElement : hubs) {
+        JsonObject hub = hubElement.getAsJsonObject();
+        String id = getString(hub, "id", "").toLowerCase(Locale.ROOT);
+        String dimension = getString(hub, "dimension", "");
+        if (id.isEmpty() || dimension.isEmpty()) {
+          log.error("{} Ignore hub without id or dimension in {}: {}", Constants.LOG_NAME,
+              FILE_NAME, hub);
+          continue;
+        }
+        if (hubSettings.containsKey(id)) {
+          log.error("{} Ignore duplicated hub {} in {}", Constants.LOG_NAME, id, FILE_NAME);
+          continue;
+        }
+        JsonArray spawnPoint = hub.getAsJsonArray("spawnPoint");
+        boolean useCustomSpawnPoint = spawnPoint != null && spawnPoint.size() == 3;
+        List<String> builderList = new ArrayList<>();
+        if (hub.has("builders")) {
+          for (JsonElement builder : hub.getAsJsonArray("builders")) {
+            builderList.add(builder.getAsString());
+          }
+        }
+        List<String> landingPadList = new ArrayList<>();
+        if (hub.has("landingPads")) {
+          for (JsonElement landingPad : hub.getAsJsonArray("landingPads")) {
+            JsonArray position = landingPad.getAsJsonArray();
+            if (position.size() == 3) {
+              landingPadList.add(position.get(0).getAsInt() + " " + position.get(1).getAsInt()
+                  + " " + position.get(2).getAsInt());
+            }
+          }
+        }
+        hubSettings.put(id,
+            new DimensionSettings(getBoolean(hub, "enabled", true), dimension,
+                getString(hub, "name", id), getString(hub, "command", id),
+                getInt(hub, "permissionLevel", 0), getBoolean(hub, "restrictCommand", true),
+                getBoolean(hub, "disableMobSpawning", true), useCustomSpawnPoint,
+                useCustomSpawnPoint ? spawnPoint.get(0).getAsInt() : 0,
+                useCustomSpawnPoint ? spawnPoint.get(1).getAsInt() : 0,
+                useCustomSpawnPoint ? spawnPoint.get(2).getAsInt() : 0, builderList,
+                landingPadList));
+      }
+    } catch (IOException | JsonParseException | IllegalStateException
+        | UnsupportedOperationException exception) {
+      log.error("{} Unable to load hubs from {}: {}", Constants.LOG_NAME, hubConfigFile,
+          exception);
+      return Collections.emptyMap();
+    }
+    log.info("{} Loaded {} additional hubs from {}", Constants.LOG_NAME, hubSettings.size(),
+        hubConfigFile);
+    return Collections.unmodifiableMap(hubSettings);
+  }
+
+  private static String getString(JsonObject jsonObject, String name, String defaultValue) {
+    return jsonObject.has(name) ? jsonObject.get(name).getAsString().trim() : defaultValue;
+  }
+
+  private static int getInt(JsonObject jsonObject, String name, int defaultValue) {
+    return jsonObject.has(name) ? jsonObject.get(name).getAsInt() : defaultValue;
+  }
+
+  private static boolean getBoolean(JsonObject jsonObject, String name, boolean defaultValue) {
+    return jsonObject.has(name) ? jsonObject.get(name).getAsBoolean() : defaultValue;
+  }
+}
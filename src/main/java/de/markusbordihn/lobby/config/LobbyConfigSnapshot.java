@@ -0,0 +1,256 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.config;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.core.BlockPos;
+
+import de.markusbordihn.lobby.dimension.DimensionRole;
+import de.markusbordihn.lobby.player.BuilderIndex;
+import de.markusbordihn.lobby.teleporter.LandingPadSelector;
+
+/**
+ * Immutable and typed copy of the common config, which is rebuilt on every config load or reload
+ * and published as a whole. Hot paths should read from this snapshot instead of the config values.
+ */
+public final class LobbyConfigSnapshot {
+
+  private static volatile LobbyConfigSnapshot current = null;
+  private static int generationCounter = 0;
+
+  public final int generation;
+
+  public final int generalCommandCoolDown;
+  public final boolean generalDefaultToLobby;
+  public final boolean generalDefaultToLobbyOnce;
+  public final boolean generalDefaultToLobbyAlways;
+  public final int generalDefaultToLobbyOnceExpiry;
+  public final int generalTransferMaxPerTick;
+  public final int generalTransferTargetTickTime;
+  public final int generalDecorativeFreezeRadius;
+
+  public final boolean teleportDelayCounterVisible;
+  public final boolean teleportDelayEnabled;
+  public final int teleportDelayCounter;
+  public final int teleportWarmChunkRadius;
+  public final int teleportWarmIdleMinutes;
+  public final LandingPadSelector.Mode teleportLandingPadSelector;
+
+  public final int defaultFireProtection;
+  public final int defaultFallProtection;
+  public final int defaultHeal;
+
+  public final boolean miningDisableBatSpawning;
+  public final boolean miningDisableMinecartChestSpawning;
+  public final boolean miningRemoveLootChest;
+  public final boolean miningRemoveSpawner;
+  public final int miningScrubChunksPerTick;
+
+  public final List<String> spawnPolicyRules;
+  public final List<String> spawnPopulationCaps;
+
+  public final boolean statsEnabled;
+  public final int statsLogInterval;
+  public final int statsMetricsPort;
+
+  public final DimensionSettings defaultSettings;
+  public final DimensionSettings lobbySettings;
+  public final DimensionSettings miningSettings;
+  public final DimensionSettings fishingSettings;
+  public final DimensionSettings gamingSettings;
+  public final DimensionSettings voidSettings;
+  public final Map<String, DimensionSettings> hubSettings;
+
+  private final Map<DimensionRole, DimensionSettings> dimensionSettings =
+      new EnumMap<>(DimensionRole.class);
+
+  private LobbyConfigSnapshot(CommonConfig.Config config, int generation) {
+    this.generation = generation;
+
+    this.generalCommandCoolDown = config.generalCommandCoolDown.get();
+    this.generalDefaultToLobby = config.generalDefaultToLobby.get();
+    this.generalDefaultToLobbyOnce = config.generalDefaultToLobbyOnce.get();
+    this.generalDefaultToLobbyAlways = config.generalDefaultToLobbyAlways.get();
+    this.generalDefaultToLobbyOnceExpiry = config.generalDefaultToLobbyOnceExpiry.get();
+    this.generalTransferMaxPerTick = config.generalTransferMaxPerTick.get();
+    this.generalTransferTargetTickTime = config.generalTransferTargetTickTime.get();
+    this.generalDecorativeFreezeRadius = config.generalDecorativeFreezeRadius.get();
+
+    this.teleportDelayCounterVisible = config.teleportDelayCounterVisible.get();
+    this.teleportDelayEnabled = config.teleportDelayEnabled.get();
+    this.teleportDelayCounter = config.teleportDelayCounter.get();
+    this.teleportWarmChunkRadius = config.teleportWarmChunkRadius.get();
+    this.teleportWarmIdleMinutes = config.teleportWarmIdleMinutes.get();
+    this.teleportLandingPadSelector = config.teleportLandingPadSelector.get();
+
+    this.defaultFireProtection = config.defaultFireProtection.get();
+    this.defaultFallProtection = config.defaultFallProtection.get();
+    this.defaultHeal = config.defaultHeal.get();
+
+    this.miningDisableBatSpawning = config.miningDisableBatSpawning.get();
+    this.miningDisableMinecartChestSpawning = config.miningDisableMinecartChestSpawning.get();
+    this.miningRemoveLootChest = config.miningRemoveLootChest.get();
+    this.miningRemoveSpawner = config.miningRemoveSpawner.get();
+    this.miningScrubChunksPerTick = config.miningScrubChunksPerTick.get();
+
+    this.spawnPolicyRules = List.copyOf(config.spawnPolicyRules.get());
+    this.spawnPopulationCaps = List.copyOf(config.spawnPopulationCaps.get());
+    this.statsEnabled = config.statsEnabled.get();
+    this.statsLogInterval = config.statsLogInterval.get();
+    this.statsMetricsPort = config.statsMetricsPort.get();
+
+    this.defaultSettings = new DimensionSettings(config.defaultEnabled.get(),
+        config.defaultDimension.get(), config.defaultDimensionName.get(),
+        config.defaultCommandName.get(), config.defaultCommandPermissionLevel.get(),
+        config.defaultRestrictCommand.get(), false, config.defaultUseCustomSpawnPoint.get(),
+        config.defaultSpawnPointX.get(), config.defaultSpawnPointY.get(),
+        config.defaultSpawnPointZ.get(), List.of(), config.defaultLandingPads.get());
+    this.lobbySettings = new DimensionSettings(config.lobbyEnabled.get(),
+        config.lobbyDimension.get(), config.lobbyDimensionName.get(),
+        config.lobbyCommandName.get(), config.lobbyCommandPermissionLevel.get(),
+        config.lobbyRestrictCommand.get(), config.lobbyDisableMobSpawning.get(),
+        config.lobbyUseCustomSpawnPoint.get(), config.lobbySpawnPointX.get(),
+        config.lobbySpawnPointY.get(), config.lobbySpawnPointZ.get(),
+        config.lobbyBuilderList.get(), config.lobbyLandingPads.get());
+    this.miningSettings = new DimensionSettings(config.miningEnabled.get(),
+        config.miningDimension.get(), config.miningDimensionName.get(),
+        config.miningCommandName.get(), config.miningCommandPermissionLevel.get(),
+        config.miningRestrictCommand.get(), config.miningDisableMobSpawning.get(),
+        config.miningUseCustomSpawnPoint.get(), config.miningSpawnPointX.get(),
+        config.miningSpawnPointY.get(), config.miningSpawnPointZ.get(), List.of(),
+        config.miningLandingPads.get());
+    this.fishingSettings = new DimensionSettings(config.fishingEnabled.get(),
+        config.fishingDimension.get(), config.fishingDimensionName.get(),
+        config.fishingCommandName.get(), config.fishingCommandPermissionLevel.get(),
+        config.fishingRestrictCommand.get(), config.fishingDisableMobSpawning.get(),
+        config.fishingUseCustomSpawnPoint.get(), config.fishingSpawnPointX.get(),
+        config.fishingSpawnPointY.get(), config.fishingSpawnPointZ.get(),
+        config.fishingBuilderList.get(), config.fishingLandingPads.get());
+    this.gamingSettings = new DimensionSettings(config.gamingEnabled.get(),
+        config.gamingDimension.get(), config.gamingDimensionName.get(),
+        config.gamingCommandName.get(), config.gamingCommandPermissionLevel.get(),
+        config.gamingRestrictCommand.get(), config.gamingDisableMobSpawning.get(),
+        config.gamingUseCustomSpawnPoint.get(), config.gamingSpawnPointX.get(),
+        config.gamingSpawnPointY.get(), config.gamingSpawnPointZ.get(),
+        config.gamingBuilderList.get(), config.gamingLandingPads.get());
+    this.voidSettings = new DimensionSettings(config.voidEnabled.get(),
+        config.voidDimension.get(), config.voidDimensionName.get(), config.voidCommandName.get(),
+        config.voidCommandPermissionLevel.get(), config.voidRestrictCommand.get(),
+        config.voidDisableMobSpawning.get(), config.voidUseCustomSpawnPoint.get(),
+        config.voidSpawnPointX.get(), config.voidSpawnPointY.get(), config.voidSpawnPointZ.get(),
+        config.voidBuilderList.get(), config.voidLandingPads.get());
+    this.hubSettings = HubConfig.load();
+
+    this.dimensionSettings.put(DimensionRole.DEFAULT, this.defaultSettings);
+    this.dimensionSettings.put(DimensionRole.LOBBY, this.lobbySettings);
+    this.dimensionSettings.put(DimensionRole.MINING, this.miningSettings);
+    this.dimensionSettings.put(DimensionRole.FISHING, this.fishingSettings);
+    this.dimensionSettings.put(DimensionRole.GAMING, this.gamingSettings);
+    this.dimensionSettings.put(DimensionRole.VOID, this.voidSettings);
+  }
+
+  public static LobbyConfigSnapshot get() {
+    LobbyConfigSnapshot snapshot = current;
+    if (snapshot == null) {
+      snapshot = rebuild();
+    }
+    return snapshot;
+  }
+
+  public static synchronized LobbyConfigSnapshot rebuild() {
+    LobbyConfigSnapshot snapshot =
+        new LobbyConfigSnapshot(CommonConfig.COMMON, ++generationCounter);
+    current = snapshot;
+    return snapshot;
+  }
+
+  public DimensionSettings getDimensionSettings(DimensionRole dimensionRole) {
+    return this.dimensionSettings.get(dimensionRole);
+  }
+
+  public boolean isAutomaticTransferEnabled() {
+    return this.generalDefaultToLobby || this.generalDefaultToLobbyOnce
+        || this.generalDefaultToLobbyAlways;
+  }
+
+  public boolean isTeleportDelayEnabled() {
+    return this.teleportDelayEnabled && this.teleportDelayCounter > 0;
+  }
+
+  public static final class DimensionSettings {
+
+    public final boolean enabled;
+    public final String dimension;
+    public final String dimensionName;
+    public final String commandName;
+    public final int commandPermissionLevel;
+    public final boolean restrictCommand;
+    public final boolean disableMobSpawning;
+    public final boolean useCustomSpawnPoint;
+    public final int spawnPointX;
+    public final int spawnPointY;
+    public final int spawnPointZ;
+    public final List<String> builderList;
+    public final BuilderIndex builderIndex;
+    public final List<BlockPos> landingPads;
+
+    DimensionSettings(boolean enabled, String dimension, String dimensionName, String commandName,
+        int commandPermissionLevel, boolean restrictCommand, boolean disableMobSpawning,
+        boolean useCustomSpawnPoint, int spawnPointX, int spawnPointY, int spawnPointZ,
+        List<String> builderList, List<String> landingPadList) {
+      this.enabled = enabled;
+      this.dimension = dimension;
+      this.dimensionName = dimensionName;
+      this.commandName = commandName;
+      this.commandPermissionLevel = commandPermissionLevel;
+      this.restrictCommand = restrictCommand;
+      this.disableMobSpawning = disableMobSpawning;
+      this.useCustomSpawnPoint = useCustomSpawnPoint;
+      this.spawnPointX = spawnPointX;
+      this.spawnPointY = spawnPointY;
+      this.spawnPointZ = spawnPointZ;
+      this.builderList = List.copyOf(builderList);
+      this.builderIndex = BuilderIndex.of(this.builderList);
+      this.landingPads = parseLandingPads(landingPadList);
+    }
+
+    private static List<BlockPos> parseLandingPads(List<String> landingPadList) {
+      List<BlockPos> landingPads = new ArrayList<>();
+      for (String landingPad : landingPadList) {
+        String[] coordinates = landingPad.trim().split("[\\s,]+");
+        if (coordinates.length != 3) {
+          continue;
+        }
+        try {
+          landingPads.add(new BlockPos(Integer.parseInt(coordinates[0]),
+              Integer.parseInt(coordinates[1]), Integer.parseInt(coordinates[2])));
+        } catch (NumberFormatException exception) {
+          // Ignore invalid landing pads, like in the builder list.
+        }
+      }
+      return List.copyOf(landingPads);
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+/**
+ * Bloom filter for UUIDs given as most and least significant bits, using double hashing over a
+ * single long array.
+ */
+public class BloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final long[] bits;
+  private final long bitCount;
+  private final int hashes;
+  private final int expectedInsertions;
+  private int insertions = 0;
+
+  public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+    this.expectedInsertions = Math.max(1, expectedInsertions);
+    long optimalBits = (long) Math
+        .ceil(-this.expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+    this.bits = new long[(int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE)];
+    this.bitCount = (long) this.bits.length * Long.SIZE;
+    this.hashes =
+        Math.max(1, (int) Math.round((double) this.bitCount / this.expectedInsertions * LN2));
+  }
+
+  public void put(long mostSigBits, long leastSigBits) {
+    long hash1 = mix(mostSigBits ^ Long.rotateLeft(leastSigBits, 32));
+    long hash2 = mix(leastSigBits + 0x9E3779B97F4A7C15L * mostSigBits) | 1L;
+    for (int i = 0; i < this.hashes; i++) {
+      long bit = Long.remainderUnsigned(hash1 + i * hash2, this.bitCount);
+      this.bits[(int) (bit >>> 6)] |= 1L << bit;
+    }
+    this.insertions++;
+  }
+
+  public boolean mightContain(long mostSigBits, long leastSigBits) {
+    long hash1 = mix(mostSigBits ^ Long.rotateLeft(leastSigBits, 32));
+    long hash2 = mix(leastSigBits + 0x9E3779B97F4A7C15L * mostSigBits) | 1L;
+    for (int i = 0; i < this.hashes; i++) {
+      long bit = Long.remainderUnsigned(hash1 + i * hash2, this.bitCount);
+      if ((this.bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getExpectedInsertions() {
+    return this.expectedInsertions;
+  }
+
+  public int getInsertions() {
+    return this.insertions;
+  }
+
+  public boolean isSaturated() {
+    return this.insertions > this.expectedInsertions;
+  }
+
+  public long getSizeInBytes() {
+    return (long) this.bits.length * Long.BYTES;
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return value ^ (value >>> 33);
+  }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.world.level.ChunkPos;
+
+/**
+ * Compact bitmap of chunks, partitioned like the region files with one long-array of 32x32 bits
+ * per region.
+ */
+public class ChunkBitmap {
+
+  private static final String REGION_X_TAG = "X";
+  private static final String REGION_Z_TAG = "Z";
+  private static final String REGION_BITS_TAG = "Bits";
+  private static final int REGION_SIZE = 32;
+  private static final int REGION_WORDS = REGION_SIZE * REGION_SIZE / Long.SIZE;
+
+  private final Long2ObjectMap<long[]> regions = new Long2ObjectOpenHashMap<>();
+  private int size = 0;
+
+  public boolean contains(int chunkX, int chunkZ) {
+    long[] region = this.regions.get(ChunkPos.asLong(chunkX >> 5, chunkZ >> 5));
+    if (region == null) {
+      return false;
+    }
+    int bit = getBitIndex(chunkX, chunkZ);
+    return (region[bit >> 6] & (1L << bit)) != 0;
+  }
+
+  public boolean contains(long chunkKey) {
+    return contains(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+  }
+
+  /**
+   * @return true if the chunk was not already part of the bitmap.
+   */
+  public boolean add(int chunkX, int chunkZ) {
+    long[] region = this.regions.computeIfAbsent(ChunkPos.asLong(chunkX >> 5, chunkZ >> 5),
+        regionKey -> new long[REGION_WORDS]);
+    int bit = getBitIndex(chunkX, chunkZ);
+    long mask = 1L << bit;
+    if ((region[bit >> 6] & mask) != 0) {
+      return false;
+    }
+    region[bit >> 6] |= mask;
+    this.size++;
+    return true;
+  }
+
+  public boolean add(long chunkKey) {
+    return add(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+  }
+
+  public void clear() {
+    this.regions.clear();
+    this.size = 0;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public int getRegions() {
+    return this.regions.size();
+  }
+
+  public ListTag save() {
+    ListTag regionListTag = new ListTag();
+    for (Long2ObjectMap.Entry<long[]> entry : this.regions.long2ObjectEntrySet()) {
+      CompoundTag regionTag = new CompoundTag();
+      regionTag.putInt(REGION_X_TAG, ChunkPos.getX(entry.getLongKey()));
+      regionTag.putInt(REGION_Z_TAG, ChunkPos.getZ(entry.getLongKey()));
+      regionTag.putLongArray(REGION_BITS_TAG, entry.getValue());
+      regionListTag.add(regionTag);
+    }
+    return regionListTag;
+  }
+
+  public void load(ListTag regionListTag) {
+    clear();
+    for (int i = 0; i < regionListTag.size(); ++i) {
+      CompoundTag regionTag = regionListTag.getCompound(i);
+      long[] region = regionTag.getLongArray(REGION_BITS_TAG);
+      if (region.length != REGION_WORDS) {
+        continue;
+      }
+      this.regions.put(
+          ChunkPos.asLong(regionTag.getInt(REGION_X_TAG), regionTag.getInt(REGION_Z_TAG)), region);
+      for (long word : region) {
+        this.size += Long.bitCount(word);
+      }
+    }
+  }
+
+  private static int getBitIndex(int chunkX, int chunkZ) {
+    return (chunkX & (REGION_SIZE - 1)) | ((chunkZ & (REGION_SIZE - 1)) << 5);
+  }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.saveddata.SavedData;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.dimension.DimensionRole;
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+import de.markusbordihn.lobby.dimension.ManagedDimensionRegistry;
+
+/**
+ * Read-only access to the former per dimension data files, which are migrated into the
+ * {@link LobbyData} once. The old files are kept untouched.
+ */
+public class LegacyDimensionData extends SavedData {
+
+  public static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  private static final String LEGACY_FILE_ID = Constants.MOD_ID;
+
+  private final CompoundTag compoundTag;
+
+  private LegacyDimensionData(CompoundTag compoundTag) {
+    this.compoundTag = compoundTag;
+  }
+
+  public static void migrate(MinecraftServer server, LobbyData lobbyData) {
+    for (ManagedDimension managedDimension : ManagedDimensionRegistry.get().getAll()) {
+      if (!managedDimension.getRole().isBuiltIn()
+          || managedDimension.getRole() == DimensionRole.DEFAULT
+          || managedDimension.getDimensionKey() == null) {
+        continue;
+      }
+      ServerLevel level = server.getLevel(managedDimension.getDimensionKey());
+      if (level == null) {
+        continue;
+      }
+      LegacyDimensionData legacyData =
+          level.getDataStorage().get(LegacyDimensionData::new, LEGACY_FILE_ID);
+      if (legacyData == null) {
+        continue;
+      }
+
+      log.info("{} migrating legacy data for {} dimension {} ...", Constants.LOG_NAME,
+          managedDimension.getId(), level);
+      CompoundTag legacyTag = legacyData.compoundTag;
+      if (legacyTag.getBoolean("DimensionLoaded")) {
+        lobbyData.setDimensionLoaded(managedDimension.getId(), true);
+      }
+      if (legacyTag.contains(LobbyData.PLAYER_TELEPORT_LIST_TAG)) {
+        lobbyData.loadPlayerTeleportList(
+            legacyTag.getList(LobbyData.PLAYER_TELEPORT_LIST_TAG, Tag.TAG_COMPOUND));
+        lobbyData.setDirty();
+      }
+      if (legacyTag.contains(LobbyData.SCRUBBED_CHUNKS_TAG)) {
+        lobbyData.getScrubbedChunks()
+            .load(legacyTag.getList(LobbyData.SCRUBBED_CHUNKS_TAG, Tag.TAG_COMPOUND));
+        lobbyData.setDirty(LobbyData.Section.SCRUBBED_CHUNKS);
+      }
+    }
+  }
+
+  @Override
+  public CompoundTag save(CompoundTag compoundTag) {
+    return compoundTag.merge(this.compoundTag);
+  }
+
+  @Override
+  public boolean isDirty() {
+    // Legacy data is never written again.
+    return false;
+  }
+}
@@ -19,60 +19,121 @@
 
 package de.markusbordihn.lobby.data;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Date;
-import java.util.Iterator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.storage.LevelResource;
 
+import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.server.ServerLifecycleHooks;
 
 import de.markusbordihn.lobby.Constants;
-import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
 
+/**
+ * Consolidated data for all managed dimensions, stored once in the overworld. The data is split
+ * into sections with their own dirty flag, so that only changed sections are encoded again and
+ * the file is only written if anything changed at all.
+ */
 @EventBusSubscriber
 public class LobbyData extends SavedData {
 
   public static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
 
-  private static final String FILE_ID = Constants.MOD_ID;
+  private static final String FILE_ID = Constants.MOD_ID + "_data";
+  private static final int PLAYER_TELEPORT_SYNC_TICKS = 100;
   private static LobbyData data = null;
   private static MinecraftServer server = null;
-  private static ServerLevel level = null;
 
+  public static final String LOADED_DIMENSIONS_TAG = "LoadedDimensions";
   public static final String PLAYER_TELEPORT_LIST_TAG = "PlayerTeleportList";
   public static final String PLAYER_UUID_TAG = "UUID";
+  public static final String SCRUBBED_CHUNKS_TAG = "ScrubbedChunks";
 
-  private Set<UUID> playerTeleportList = ConcurrentHashMap.newKeySet();
-  private boolean dimensionLoaded = false;
-  private long lastUpdate;
+  public enum Section {
+    LOADED_DIMENSIONS(LOADED_DIMENSIONS_TAG),
+    SCRUBBED_CHUNKS(SCRUBBED_CHUNKS_TAG);
 
-  public LobbyData() {
-    this.setDirty();
+    private final String tagName;
+
+    Section(String tagName) {
+      this.tagName = tagName;
+    }
+
+    public String getTagName() {
+      return this.tagName;
+    }
   }
 
+  private final Set<Section> dirtySections = EnumSet.noneOf(Section.class);
+  private final Map<Section, Tag> sectionTags = new EnumMap<>(Section.class);
+  private final Set<String> loadedDimensions = new HashSet<>();
+  private final PlayerTeleportStore playerTeleports = new PlayerTeleportStore();
+  private final ChunkBitmap scrubbedChunks = new ChunkBitmap();
+  private long lastUpdate;
+  private int playerTeleportTicker = 0;
+  private boolean hasPlayerTeleportList = false;
+
+  public LobbyData() {}
+
   @SubscribeEvent
   public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
     // Reset data and server for the integrated server.
+    if (data != null) {
+      data.playerTeleports.close(getPlayerTeleportMaxAge());
+    }
     data = null;
-    level = null;
     server = null;
   }
 
+  @SubscribeEvent
+  public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
+    LobbyData lobbyData = LobbyData.data;
+    if (event.phase == TickEvent.Phase.START || lobbyData == null
+        || lobbyData.playerTeleportTicker++ < PLAYER_TELEPORT_SYNC_TICKS) {
+      return;
+    }
+    lobbyData.playerTeleportTicker = 0;
+    lobbyData.playerTeleports.tick(getPlayerTeleportMaxAge());
+    lobbyData.updatePlayerTeleportMigration();
+  }
+
+  @SubscribeEvent
+  public static void handleServerStoppingEvent(ServerStoppingEvent event) {
+    if (data != null) {
+      data.playerTeleports.close(getPlayerTeleportMaxAge());
+    }
+  }
+
   public static LobbyData get() {
-    if (LobbyData.data == null || LobbyData.level == null) {
+    if (LobbyData.data == null) {
       prepare(ServerLifecycleHooks.getCurrentServer());
     }
     return LobbyData.data;
@@ -80,22 +141,28 @@ public class LobbyData extends SavedData {
 
   public static void prepare(MinecraftServer server) {
     // Make sure we preparing the data only once for the same server!
-    if (server == LobbyData.server && LobbyData.data != null && LobbyData.level != null) {
+    if (server == LobbyData.server && LobbyData.data != null) {
       return;
     }
 
+    ServerLevel level = server != null ? server.overworld() : null;
+    if (level == null) {
+      log.error("Unable to preparing data for {}", server);
+      return;
+    }
     LobbyData.server = server;
-    LobbyData.level = DimensionManager.getLobbyDimension();
-    if (LobbyData.level != null) {
-      log.info("{} preparing data for {} and {}", Constants.LOG_NAME, LobbyData.server,
-          LobbyData.level);
+    log.info("{} preparing data for {} and {}", Constants.LOG_NAME, server, level);
 
-      // Using a global approach and storing relevant data in the overworld only!
-      LobbyData.data = LobbyData.level.getDataStorage().computeIfAbsent(LobbyData::load,
-          LobbyData::new, LobbyData.getFileId());
-    } else {
-      log.error("Unable to preparing data for {} and {}", LobbyData.server, LobbyData.level);
+    // Using a global approach and storing relevant data in the overworld only!
+    LobbyData lobbyData = level.getDataStorage().get(LobbyData::load, LobbyData.getFileId());
+    if (lobbyData == null) {
+      lobbyData = new LobbyData();
+      LegacyDimensionData.migrate(server, lobbyData);
+      level.getDataStorage().set(LobbyData.getFileId(), lobbyData);
     }
+    lobbyData.playerTeleports.open(server.getWorldPath(LevelResource.ROOT).resolve("data"));
+    lobbyData.updatePlayerTeleportMigration();
+    LobbyData.data = lobbyData;
   }
 
   public static String getFileId() {
@@ -106,67 +173,167 @@ public class LobbyData extends SavedData {
     return this.lastUpdate;
   }
 
-  public void setLastUpdate(long lastUpdate) {
-    this.lastUpdate = lastUpdate;
+  public boolean getDimensionLoaded(String dimensionId) {
+    return this.loadedDimensions.contains(dimensionId);
+  }
+
+  public void setDimensionLoaded(String dimensionId, boolean loaded) {
+    if (loaded ? this.loadedDimensions.add(dimensionId)
+        : this.loadedDimensions.remove(dimensionId)) {
+      this.setDirty(Section.LOADED_DIMENSIONS);
+    }
+  }
+
+  public PlayerTeleportStore getPlayerTeleports() {
+    return this.playerTeleports;
+  }
+
+  public boolean hasPlayerTeleport(UUID uuid) {
+    return this.playerTeleports.contains(uuid, getPlayerTeleportMaxAge());
+  }
+
+  public void addPlayerTeleport(UUID uuid) {
+    this.playerTeleports.add(uuid);
+  }
+
+  /**
+   * Drops the former Player Teleport List with the next save, once the players are in the history.
+   */
+  private void updatePlayerTeleportMigration() {
+    if (this.hasPlayerTeleportList && !this.playerTeleports.isMigrationPending()) {
+      this.hasPlayerTeleportList = false;
+      this.setDirty();
+    }
   }
 
-  public boolean getDimensionLoaded() {
-    return this.dimensionLoaded;
+  private static long getPlayerTeleportMaxAge() {
+    return TimeUnit.DAYS.toMillis(LobbyConfigSnapshot.get().generalDefaultToLobbyOnceExpiry);
   }
 
-  public void setDimensionLoaded(boolean loaded) {
-    this.dimensionLoaded = loaded;
+  public ChunkBitmap getScrubbedChunks() {
+    return this.scrubbedChunks;
   }
 
-  public Set<UUID> getPlayerTeleportList() {
-    return this.playerTeleportList;
+  public void resetScrubbedChunks() {
+    this.scrubbedChunks.clear();
+    this.setDirty(Section.SCRUBBED_CHUNKS);
   }
 
-  public void setPlayerTeleportList(Set<UUID> playerTeleportList) {
-    this.playerTeleportList = playerTeleportList;
+  public void setDirty(Section section) {
+    this.dirtySections.add(section);
     this.setDirty();
   }
 
   public static LobbyData load(CompoundTag compoundTag) {
     LobbyData lobbyData = new LobbyData();
-    log.info("{} loading lobby dimension data ... {}", Constants.LOG_NAME, compoundTag);
-    lobbyData.dimensionLoaded = compoundTag.getBoolean("DimensionLoaded");
+    log.info("{} loading lobby data ... {}", Constants.LOG_NAME, compoundTag.getAllKeys());
     lobbyData.lastUpdate = compoundTag.getLong("LastUpdate");
 
-    // Restoring Player Teleport List
-    if (compoundTag.contains(PLAYER_TELEPORT_LIST_TAG)) {
-      ListTag playerTeleportListTag = compoundTag.getList(PLAYER_TELEPORT_LIST_TAG, 10);
-      for (int i = 0; i < playerTeleportListTag.size(); ++i) {
-        UUID playerTeleportListUUID = playerTeleportListTag.getCompound(i).getUUID(PLAYER_UUID_TAG);
-        if (playerTeleportListUUID != null) {
-          lobbyData.playerTeleportList.add(playerTeleportListUUID);
-        }
-      }
+    // Restoring loaded dimensions
+    ListTag loadedDimensionsTag = compoundTag.getList(LOADED_DIMENSIONS_TAG, Tag.TAG_STRING);
+    for (int i = 0; i < loadedDimensionsTag.size(); ++i) {
+      lobbyData.loadedDimensions.add(loadedDimensionsTag.getString(i));
     }
 
+    // Migrating the former Player Teleport List into the player teleport history. The list is
+    // kept in the file until the migration compaction succeeded.
+    if (compoundTag.contains(PLAYER_TELEPORT_LIST_TAG, Tag.TAG_LONG_ARRAY)) {
+      lobbyData.playerTeleports.addLegacy(compoundTag.getLongArray(PLAYER_TELEPORT_LIST_TAG));
+      lobbyData.hasPlayerTeleportList = true;
+    } else if (compoundTag.contains(PLAYER_TELEPORT_LIST_TAG, Tag.TAG_LIST)) {
+      lobbyData.loadPlayerTeleportList(
+          compoundTag.getList(PLAYER_TELEPORT_LIST_TAG, Tag.TAG_COMPOUND));
+      lobbyData.hasPlayerTeleportList = true;
+    }
+
+    // Restoring scrubbed chunks of the mining dimension
+    lobbyData.scrubbedChunks.load(compoundTag.getList(SCRUBBED_CHUNKS_TAG, Tag.TAG_COMPOUND));
+
+    // Loaded sections are unchanged and could be written back as they are.
+    for (Section section : Section.values()) {
+      if (compoundTag.contains(section.getTagName())) {
+        lobbyData.sectionTags.put(section, compoundTag.get(section.getTagName()));
+      }
+    }
+    log.info("{} loaded {} dimension states and {} scrubbed chunks", Constants.LOG_NAME,
+        lobbyData.loadedDimensions.size(), lobbyData.scrubbedChunks.size());
     return lobbyData;
   }
 
+  void loadPlayerTeleportList(ListTag playerTeleportListTag) {
+    for (int i = 0; i < playerTeleportListTag.size(); ++i) {
+      CompoundTag playerTeleportListCompoundTag = playerTeleportListTag.getCompound(i);
+      if (playerTeleportListCompoundTag.hasUUID(PLAYER_UUID_TAG)) {
+        this.playerTeleports.addLegacy(playerTeleportListCompoundTag.getUUID(PLAYER_UUID_TAG));
+      }
+    }
+  }
+
   @Override
   public CompoundTag save(CompoundTag compoundTag) {
-    log.info("{} saving lobby dimension data ... {}", Constants.LOG_NAME, this);
-    compoundTag.putBoolean("DimensionLoaded", this.dimensionLoaded);
-    compoundTag.putLong("LastUpdate", new Date().getTime());
-
-    // Store Player Teleport List
-    ListTag playerTeleportListTag = new ListTag();
-    Iterator<UUID> playerTeleportListIterator = this.playerTeleportList.iterator();
-    while (playerTeleportListIterator.hasNext()) {
-      UUID playerTeleportListUUID = playerTeleportListIterator.next();
-      if (playerTeleportListUUID != null) {
-        CompoundTag playerTeleportListCompoundTag = new CompoundTag();
-        playerTeleportListCompoundTag.putUUID(PLAYER_UUID_TAG, playerTeleportListUUID);
-        playerTeleportListTag.add(playerTeleportListCompoundTag);
+    log.info("{} saving lobby data sections {} ...", Constants.LOG_NAME, this.dirtySections);
+    this.lastUpdate = new Date().getTime();
+    compoundTag.putLong("LastUpdate", this.lastUpdate);
+    for (Section section : Section.values()) {
+      Tag sectionTag = this.sectionTags.get(section);
+      if (sectionTag == null || this.dirtySections.contains(section)) {
+        sectionTag = saveSection(section);
+        this.sectionTags.put(section, sectionTag);
       }
+      compoundTag.put(section.getTagName(), sectionTag);
     }
-    compoundTag.put(PLAYER_TELEPORT_LIST_TAG, playerTeleportListTag);
 
+    // Players which could not be migrated yet are written in the former format again.
+    this.hasPlayerTeleportList = this.playerTeleports.isMigrationPending();
+    if (this.hasPlayerTeleportList) {
+      compoundTag.putLongArray(PLAYER_TELEPORT_LIST_TAG, this.playerTeleports.toLegacyArray());
+    }
+    this.dirtySections.clear();
     return compoundTag;
   }
 
+  private Tag saveSection(Section section) {
+    switch (section) {
+      case LOADED_DIMENSIONS:
+        ListTag loadedDimensionsTag = new ListTag();
+        for (String loadedDimension : this.loadedDimensions) {
+          loadedDimensionsTag.add(StringTag.valueOf(loadedDimension));
+        }
+        return loadedDimensionsTag;
+      case SCRUBBED_CHUNKS:
+        return this.scrubbedChunks.save();
+      default:
+        throw new IllegalArgumentException("Unknown section " + section);
+    }
+  }
+
+  /**
+   * Writes the data into a temporary file first and replaces the existing file afterwards, so that
+   * a crash during the save never leaves a truncated file behind.
+   */
+  @Override
+  public void save(File file) {
+    if (!this.isDirty()) {
+      return;
+    }
+    CompoundTag compoundTag = new CompoundTag();
+    compoundTag.put("data", this.save(new CompoundTag()));
+    NbtUtils.addCurrentDataVersion(compoundTag);
+    Path targetFile = file.toPath();
+    Path temporaryFile = targetFile.resolveSibling(targetFile.getFileName() + ".tmp");
+    try {
+      NbtIo.writeCompressed(compoundTag, temporaryFile.toFile());
+      try {
+        Files.move(temporaryFile, targetFile, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException atomicMoveException) {
+        Files.move(temporaryFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+      this.setDirty(false);
+    } catch (IOException exception) {
+      log.error("{} Unable to save lobby data to {}: {}", Constants.LOG_NAME, targetFile,
+          exception);
+    }
+  }
+
 }
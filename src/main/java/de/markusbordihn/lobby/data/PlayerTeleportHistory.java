@@ -0,0 +1,224 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Disk based history of teleported players with 24 bytes per player (most and least significant
+ * bits and the last seen time), sorted by UUID. Lookups are binary searches with positional
+ * reads, so that only the file cache holds the history.
+ */
+public class PlayerTeleportHistory {
+
+  private static final int RECORD_SIZE = 24;
+  private static final int BUFFER_RECORDS = 1024;
+
+  private final Path file;
+  private final ByteBuffer lookupBuffer = ByteBuffer.allocate(RECORD_SIZE);
+  private FileChannel channel = null;
+  private int records = 0;
+
+  public interface RecordConsumer {
+    void accept(long mostSigBits, long leastSigBits, long lastSeen);
+  }
+
+  public PlayerTeleportHistory(Path file) {
+    this.file = file;
+  }
+
+  public Path getFile() {
+    return this.file;
+  }
+
+  public void open() throws IOException {
+    close();
+    if (Files.exists(this.file)) {
+      this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+      this.records = (int) (this.channel.size() / RECORD_SIZE);
+    } else {
+      this.records = 0;
+    }
+  }
+
+  public int size() {
+    return this.records;
+  }
+
+  /**
+   * @return last seen time of the player or -1 if the player is not part of the history.
+   */
+  public long getLastSeen(long mostSigBits, long leastSigBits) throws IOException {
+    int low = 0;
+    int high = this.records - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      this.lookupBuffer.clear();
+      readFully(this.lookupBuffer, (long) middle * RECORD_SIZE);
+      this.lookupBuffer.flip();
+      int compare = compare(this.lookupBuffer.getLong(), this.lookupBuffer.getLong(),
+          mostSigBits, leastSigBits);
+      if (compare < 0) {
+        low = middle + 1;
+      } else if (compare > 0) {
+        high = middle - 1;
+      } else {
+        return this.lookupBuffer.getLong();
+      }
+    }
+    return -1;
+  }
+
+  public void forEach(RecordConsumer consumer) throws IOException {
+    RecordReader reader = new RecordReader();
+    while (reader.next()) {
+      consumer.accept(reader.mostSigBits, reader.leastSigBits, reader.lastSeen);
+    }
+  }
+
+  /**
+   * Merges the sorted pairs of most and least significant bits with the given last seen time into
+   * a new history file, which replaces the existing one. Records which have not been seen since
+   * expireBefore are dropped, if expireBefore is greater than zero.
+   */
+  public void merge(long[] sortedPairs, long lastSeen, long expireBefore) throws IOException {
+    Path temporaryFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+    int mergedRecords = 0;
+    try (FileChannel writeChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer writeBuffer = ByteBuffer.allocate(RECORD_SIZE * BUFFER_RECORDS);
+      RecordReader reader = new RecordReader();
+      boolean hasRecord = reader.next();
+      int index = 0;
+      while (hasRecord || index < sortedPairs.length) {
+        int compare = !hasRecord ? 1
+            : index >= sortedPairs.length ? -1
+                : compare(reader.mostSigBits, reader.leastSigBits, sortedPairs[index],
+                    sortedPairs[index + 1]);
+        if (compare < 0) {
+          if (expireBefore <= 0 || reader.lastSeen >= expireBefore) {
+            write(writeChannel, writeBuffer, reader.mostSigBits, reader.leastSigBits,
+                reader.lastSeen);
+            mergedRecords++;
+          }
+          hasRecord = reader.next();
+        } else {
+          write(writeChannel, writeBuffer, sortedPairs[index], sortedPairs[index + 1], lastSeen);
+          mergedRecords++;
+          index += 2;
+          if (compare == 0) {
+            hasRecord = reader.next();
+          }
+        }
+      }
+      flush(writeChannel, writeBuffer);
+      writeChannel.force(false);
+    }
+    close();
+    try {
+      Files.move(temporaryFile, this.file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException atomicMoveException) {
+      Files.move(temporaryFile, this.file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    this.channel = FileChannel.open(this.file, StandardOpenOption.READ);
+    this.records = mergedRecords;
+  }
+
+  public void close() throws IOException {
+    if (this.channel != null) {
+      this.channel.close();
+      this.channel = null;
+    }
+    this.records = 0;
+  }
+
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (this.channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of history " + this.file);
+      }
+    }
+  }
+
+  private static void write(FileChannel channel, ByteBuffer buffer, long mostSigBits,
+      long leastSigBits, long lastSeen) throws IOException {
+    if (buffer.remaining() < RECORD_SIZE) {
+      flush(channel, buffer);
+    }
+    buffer.putLong(mostSigBits);
+    buffer.putLong(leastSigBits);
+    buffer.putLong(lastSeen);
+  }
+
+  private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  static int compare(long mostSigBits, long leastSigBits, long otherMostSigBits,
+      long otherLeastSigBits) {
+    int compare = Long.compare(mostSigBits, otherMostSigBits);
+    return compare != 0 ? compare : Long.compare(leastSigBits, otherLeastSigBits);
+  }
+
+  /**
+   * Sequential reader over all records of the current history file.
+   */
+  private class RecordReader {
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * BUFFER_RECORDS);
+    private long position = 0;
+    private long mostSigBits;
+    private long leastSigBits;
+    private long lastSeen;
+
+    private RecordReader() {
+      this.buffer.flip();
+    }
+
+    private boolean next() throws IOException {
+      if (this.buffer.remaining() < RECORD_SIZE) {
+        long end = (long) records * RECORD_SIZE;
+        if (channel == null || this.position >= end) {
+          return false;
+        }
+        this.buffer.clear();
+        this.buffer.limit((int) Math.min(this.buffer.capacity(), end - this.position));
+        readFully(this.buffer, this.position);
+        this.position += this.buffer.position();
+        this.buffer.flip();
+      }
+      this.mostSigBits = this.buffer.getLong();
+      this.leastSigBits = this.buffer.getLong();
+      this.lastSeen = this.buffer.getLong();
+      return true;
+    }
+  }
+}
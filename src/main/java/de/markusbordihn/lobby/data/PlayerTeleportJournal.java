@@ -0,0 +1,140 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Append-only journal of UUIDs with 16 bytes per entry. Entries are buffered and only forced to
+ * the disk with {@link #sync()}, a torn entry at the end of the file is ignored on replay.
+ */
+public class PlayerTeleportJournal {
+
+  private static final int ENTRY_SIZE = 16;
+  private static final int BUFFER_ENTRIES = 256;
+
+  private final Path file;
+  private final ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE * BUFFER_ENTRIES);
+  private FileChannel channel = null;
+  private int entries = 0;
+  private boolean unsynced = false;
+
+  public PlayerTeleportJournal(Path file) {
+    this.file = file;
+  }
+
+  public Path getFile() {
+    return this.file;
+  }
+
+  /**
+   * Reads all complete entries of an existing journal and opens it for appending.
+   *
+   * @return number of replayed entries.
+   */
+  public int open(UUIDSet uuidSet) throws IOException {
+    this.entries = 0;
+    if (Files.exists(this.file)) {
+      try (FileChannel readChannel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+        ByteBuffer readBuffer = ByteBuffer.allocate(ENTRY_SIZE * BUFFER_ENTRIES);
+        while (readChannel.read(readBuffer) > 0 || readBuffer.position() >= ENTRY_SIZE) {
+          readBuffer.flip();
+          while (readBuffer.remaining() >= ENTRY_SIZE) {
+            uuidSet.add(readBuffer.getLong(), readBuffer.getLong());
+            this.entries++;
+          }
+          readBuffer.compact();
+        }
+      }
+    }
+    this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE);
+    // Drop a torn entry from an interrupted write, so that new entries stay aligned.
+    this.channel.truncate((long) this.entries * ENTRY_SIZE);
+    this.channel.position((long) this.entries * ENTRY_SIZE);
+    return this.entries;
+  }
+
+  public void append(UUID uuid) throws IOException {
+    if (this.buffer.remaining() < ENTRY_SIZE) {
+      write();
+    }
+    this.buffer.putLong(uuid.getMostSignificantBits());
+    this.buffer.putLong(uuid.getLeastSignificantBits());
+    this.entries++;
+    this.unsynced = true;
+  }
+
+  public void sync() throws IOException {
+    if (!this.unsynced || this.channel == null) {
+      return;
+    }
+    write();
+    this.channel.force(false);
+    this.unsynced = false;
+  }
+
+  /**
+   * Drops all entries, after they have been written into a snapshot.
+   */
+  public void truncate() throws IOException {
+    this.buffer.clear();
+    if (this.channel != null) {
+      this.channel.truncate(0);
+      this.channel.position(0);
+      this.channel.force(false);
+    }
+    this.entries = 0;
+    this.unsynced = false;
+  }
+
+  public void close() throws IOException {
+    if (this.channel != null) {
+      sync();
+      this.channel.close();
+      this.channel = null;
+    }
+  }
+
+  public int size() {
+    return this.entries;
+  }
+
+  public boolean isEmpty() {
+    return this.entries == 0;
+  }
+
+  private void write() throws IOException {
+    if (this.channel == null) {
+      throw new IOException("Journal " + this.file + " is not open!");
+    }
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.markusbordihn.lobby.Constants;
+
+/**
+ * Two tier membership of all players which have been teleported once. Players seen since the last
+ * compaction are kept in memory and in the journal, all other players only in the sorted history
+ * file. A bloom filter over the history answers most lookups of new players without disk access.
+ */
+public class PlayerTeleportStore {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  private static final String HISTORY_FILE_ID = Constants.MOD_ID + "_teleport_history";
+  private static final String JOURNAL_FILE_ID = Constants.MOD_ID + "_teleport_journal";
+  private static final int COMPACT_ENTRIES = 4096;
+  private static final long COMPACT_INTERVAL_MILLI = TimeUnit.MINUTES.toMillis(30);
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+  private static final int MIN_FILTER_SIZE = 1024;
+
+  private final UUIDSet recentPlayers = new UUIDSet();
+  private BloomFilter filter = new BloomFilter(MIN_FILTER_SIZE, FALSE_POSITIVE_RATE);
+  private PlayerTeleportHistory history = null;
+  private PlayerTeleportJournal journal = null;
+  private long lastCompaction = System.currentTimeMillis();
+  private boolean compactionRequired = false;
+
+  public void open(Path dataPath) {
+    PlayerTeleportHistory playerTeleportHistory =
+        new PlayerTeleportHistory(dataPath.resolve(HISTORY_FILE_ID + ".dat"));
+    try {
+      playerTeleportHistory.open();
+      this.history = playerTeleportHistory;
+      rebuildFilter();
+      log.info("{} loaded history with {} teleported players", Constants.LOG_NAME,
+          this.history.size());
+    } catch (IOException exception) {
+      log.error("{} Unable to open history {}, only recent players will be known: {}",
+          Constants.LOG_NAME, playerTeleportHistory.getFile(), exception);
+    }
+
+    PlayerTeleportJournal playerTeleportJournal =
+        new PlayerTeleportJournal(dataPath.resolve(JOURNAL_FILE_ID + ".dat"));
+    try {
+      int replayedEntries = playerTeleportJournal.open(this.recentPlayers);
+      if (replayedEntries > 0) {
+        log.info("{} replayed {} player teleport journal entries from {}", Constants.LOG_NAME,
+            replayedEntries, playerTeleportJournal.getFile());
+      }
+      this.journal = playerTeleportJournal;
+    } catch (IOException exception) {
+      log.error("{} Unable to open journal {}, new players will not be persisted: {}",
+          Constants.LOG_NAME, playerTeleportJournal.getFile(), exception);
+    }
+
+    // Players from former data formats are only in memory and need to be written at once.
+    if (this.compactionRequired) {
+      compact(0);
+    }
+  }
+
+  /**
+   * @param maxAgeMilli players which have not been seen for longer are unknown again (0 = never).
+   */
+  public boolean contains(UUID uuid, long maxAgeMilli) {
+    long mostSigBits = uuid.getMostSignificantBits();
+    long leastSigBits = uuid.getLeastSignificantBits();
+    if (this.recentPlayers.contains(mostSigBits, leastSigBits)) {
+      return true;
+    }
+    if (this.history == null || !this.filter.mightContain(mostSigBits, leastSigBits)) {
+      return false;
+    }
+    try {
+      long lastSeen = this.history.getLastSeen(mostSigBits, leastSigBits);
+      return lastSeen >= 0
+          && (maxAgeMilli <= 0 || System.currentTimeMillis() - lastSeen <= maxAgeMilli);
+    } catch (IOException exception) {
+      log.error("{} Unable to lookup {} in history {}: {}", Constants.LOG_NAME, uuid,
+          this.history.getFile(), exception);
+      return true;
+    }
+  }
+
+  /**
+   * Adds a new player or refreshes the last seen time of a known player with the next compaction.
+   */
+  public void add(UUID uuid) {
+    if (!this.recentPlayers.add(uuid) || this.journal == null) {
+      return;
+    }
+    try {
+      this.journal.append(uuid);
+    } catch (IOException exception) {
+      log.error("{} Unable to append {} to journal {}: {}", Constants.LOG_NAME, uuid,
+          this.journal.getFile(), exception);
+    }
+  }
+
+  /**
+   * Adds players from former data formats, which are written with the next compaction.
+   */
+  public void addLegacy(UUID uuid) {
+    this.recentPlayers.add(uuid);
+    this.compactionRequired = true;
+  }
+
+  public void addLegacy(long[] packedUUIDs) {
+    this.recentPlayers.load(packedUUIDs);
+    this.compactionRequired = true;
+  }
+
+  /**
+   * @return true, if players from former data formats have not been written to the history yet.
+   */
+  public boolean isMigrationPending() {
+    return this.compactionRequired;
+  }
+
+  /**
+   * Packed players which are not in the history yet, to keep them in the former data format until
+   * the migration succeeded.
+   */
+  public long[] toLegacyArray() {
+    return this.recentPlayers.toLongArray();
+  }
+
+  public void tick(long maxAgeMilli) {
+    if (this.journal == null) {
+      return;
+    }
+    if (this.journal.size() >= COMPACT_ENTRIES || (!this.recentPlayers.isEmpty()
+        && System.currentTimeMillis() - this.lastCompaction >= COMPACT_INTERVAL_MILLI)) {
+      compact(maxAgeMilli);
+      return;
+    }
+    try {
+      this.journal.sync();
+    } catch (IOException exception) {
+      log.error("{} Unable to sync journal {}: {}", Constants.LOG_NAME, this.journal.getFile(),
+          exception);
+    }
+  }
+
+  /**
+   * Merges the recent players into the history and truncates the journal afterwards.
+   */
+  public void compact(long maxAgeMilli) {
+    this.lastCompaction = System.currentTimeMillis();
+    if (this.history == null) {
+      return;
+    }
+    if (this.recentPlayers.isEmpty()) {
+      this.compactionRequired = false;
+      return;
+    }
+    log.debug("{} compacting {} recent players into history with {} players ...",
+        Constants.LOG_NAME, this.recentPlayers.size(), this.history.size());
+    long[] sortedPairs = this.recentPlayers.toSortedLongArray();
+    try {
+      this.history.merge(sortedPairs, this.lastCompaction,
+          maxAgeMilli > 0 ? this.lastCompaction - maxAgeMilli : 0);
+    } catch (IOException exception) {
+      log.error("{} Unable to compact history {}: {}", Constants.LOG_NAME,
+          this.history.getFile(), exception);
+      return;
+    }
+    this.recentPlayers.clear();
+    this.compactionRequired = false;
+    for (int i = 0; i < sortedPairs.length; i += 2) {
+      this.filter.put(sortedPairs[i], sortedPairs[i + 1]);
+    }
+    if (this.filter.isSaturated()) {
+      try {
+        rebuildFilter();
+      } catch (IOException exception) {
+        log.error("{} Unable to rebuild filter from history {}: {}", Constants.LOG_NAME,
+            this.history.getFile(), exception);
+      }
+    }
+    if (this.journal != null) {
+      try {
+        this.journal.truncate();
+      } catch (IOException exception) {
+        log.error("{} Unable to truncate journal {}: {}", Constants.LOG_NAME,
+            this.journal.getFile(), exception);
+      }
+    }
+  }
+
+  public void close(long maxAgeMilli) {
+    compact(maxAgeMilli);
+    try {
+      if (this.journal != null) {
+        this.journal.close();
+      }
+      if (this.history != null) {
+        this.history.close();
+      }
+    } catch (IOException exception) {
+      log.error("{} Unable to close player teleport store: {}", Constants.LOG_NAME, exception);
+    }
+    this.journal = null;
+    this.history = null;
+  }
+
+  public int getRecentPlayers() {
+    return this.recentPlayers.size();
+  }
+
+  public int getHistoryPlayers() {
+    return this.history != null ? this.history.size() : 0;
+  }
+
+  public long getFilterSizeInBytes() {
+    return this.filter.getSizeInBytes();
+  }
+
+  private void rebuildFilter() throws IOException {
+    // Leave room for growth, so that the filter is not rebuilt with every compaction.
+    BloomFilter bloomFilter = new BloomFilter(Math.max(MIN_FILTER_SIZE, this.history.size() * 2),
+        FALSE_POSITIVE_RATE);
+    this.history.forEach((mostSigBits, leastSigBits, lastSeen) -> bloomFilter
+        .put(mostSigBits, leastSigBits));
+    this.filter = bloomFilter;
+  }
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.data;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import it.unimi.dsi.fastutil.Arrays;
+
+import net.minecraft.nbt.LongArrayTag;
+
+/**
+ * Open addressing hash set of UUIDs, stored as pairs of the most and least significant bits in a
+ * single long array. The nil UUID marks empty slots and is tracked separately.
+ */
+public class UUIDSet {
+
+  private static final int MIN_CAPACITY = 16;
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private long[] slots;
+  private int mask;
+  private int size = 0;
+  private boolean containsNil = false;
+
+  public UUIDSet() {
+    this(MIN_CAPACITY);
+  }
+
+  public UUIDSet(int expectedSize) {
+    allocate(getCapacity(expectedSize));
+  }
+
+  public boolean contains(UUID uuid) {
+    return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  public boolean contains(long mostSigBits, long leastSigBits) {
+    if (mostSigBits == 0 && leastSigBits == 0) {
+      return this.containsNil;
+    }
+    int slot = hash(mostSigBits, leastSigBits) & this.mask;
+    while (!isEmptySlot(slot)) {
+      if (this.slots[slot << 1] == mostSigBits && this.slots[(slot << 1) + 1] == leastSigBits) {
+        return true;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return false;
+  }
+
+  /**
+   * @return true if the UUID was not already part of the set.
+   */
+  public boolean add(UUID uuid) {
+    return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  public boolean add(long mostSigBits, long leastSigBits) {
+    if (mostSigBits == 0 && leastSigBits == 0) {
+      if (this.containsNil) {
+        return false;
+      }
+      this.containsNil = true;
+      this.size++;
+      return true;
+    }
+    int slot = hash(mostSigBits, leastSigBits) & this.mask;
+    while (!isEmptySlot(slot)) {
+      if (this.slots[slot << 1] == mostSigBits && this.slots[(slot << 1) + 1] == leastSigBits) {
+        return false;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    this.slots[slot << 1] = mostSigBits;
+    this.slots[(slot << 1) + 1] = leastSigBits;
+    if (++this.size > (this.mask + 1) * LOAD_FACTOR) {
+      rehash(getCapacity(this.size + 1));
+    }
+    return true;
+  }
+
+  public void addAll(UUIDSet uuidSet) {
+    uuidSet.forEach(this::add);
+  }
+
+  public void clear() {
+    allocate(MIN_CAPACITY);
+    this.size = 0;
+    this.containsNil = false;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public void forEach(Consumer<UUID> consumer) {
+    if (this.containsNil) {
+      consumer.accept(new UUID(0L, 0L));
+    }
+    for (int slot = 0; slot <= this.mask; slot++) {
+      if (!isEmptySlot(slot)) {
+        consumer.accept(new UUID(this.slots[slot << 1], this.slots[(slot << 1) + 1]));
+      }
+    }
+  }
+
+  /**
+   * @return packed most and least significant bits, two longs per UUID.
+   */
+  public long[] toLongArray() {
+    long[] packed = new long[this.size << 1];
+    int index = this.containsNil ? 2 : 0;
+    for (int slot = 0; slot <= this.mask; slot++) {
+      if (!isEmptySlot(slot)) {
+        packed[index++] = this.slots[slot << 1];
+        packed[index++] = this.slots[(slot << 1) + 1];
+      }
+    }
+    return packed;
+  }
+
+  /**
+   * @return packed most and least significant bits, sorted by the most significant bits first.
+   */
+  public long[] toSortedLongArray() {
+    long[] packed = toLongArray();
+    Arrays.quickSort(0, packed.length >> 1,
+        (first, second) -> PlayerTeleportHistory.compare(packed[first << 1],
+            packed[(first << 1) + 1], packed[second << 1], packed[(second << 1) + 1]),
+        (first, second) -> {
+          long mostSigBits = packed[first << 1];
+          long leastSigBits = packed[(first << 1) + 1];
+          packed[first << 1] = packed[second << 1];
+          packed[(first << 1) + 1] = packed[(second << 1) + 1];
+          packed[second << 1] = mostSigBits;
+          packed[(second << 1) + 1] = leastSigBits;
+        });
+    return packed;
+  }
+
+  public LongArrayTag save() {
+    return new LongArrayTag(toLongArray());
+  }
+
+  public void load(long[] packed) {
+    int expectedSize = this.size + (packed.length >> 1);
+    if (expectedSize > (this.mask + 1) * LOAD_FACTOR) {
+      rehash(getCapacity(expectedSize));
+    }
+    for (int i = 0; i + 1 < packed.length; i += 2) {
+      add(packed[i], packed[i + 1]);
+    }
+  }
+
+  private boolean isEmptySlot(int slot) {
+    return this.slots[slot << 1] == 0 && this.slots[(slot << 1) + 1] == 0;
+  }
+
+  private void allocate(int capacity) {
+    this.slots = new long[capacity << 1];
+    this.mask = capacity - 1;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldSlots = this.slots;
+    allocate(capacity);
+    for (int i = 0; i < oldSlots.length; i += 2) {
+      long mostSigBits = oldSlots[i];
+      long leastSigBits = oldSlots[i + 1];
+      if (mostSigBits != 0 || leastSigBits != 0) {
+        int slot = hash(mostSigBits, leastSigBits) & this.mask;
+        while (!isEmptySlot(slot)) {
+          slot = (slot + 1) & this.mask;
+        }
+        this.slots[slot << 1] = mostSigBits;
+        this.slots[(slot << 1) + 1] = leastSigBits;
+      }
+    }
+  }
+
+  private static int getCapacity(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity * LOAD_FACTOR < expectedSize) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static int hash(long mostSigBits, long leastSigBits) {
+    long hash = (mostSigBits ^ Long.rotateLeft(leastSigBits, 32)) * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32));
+  }
+}
@@ -26,12 +26,9 @@ import net.minecraft.server.level.ServerLevel;
 
 import de.markusbordihn.lobby.Constants;
 import de.markusbordihn.lobby.commands.CommandManager;
-import de.markusbordihn.lobby.data.FishingData;
-import de.markusbordihn.lobby.data.GamingData;
 import de.markusbordihn.lobby.data.LobbyData;
-import de.markusbordihn.lobby.data.MiningData;
-import de.markusbordihn.lobby.data.VoidData;
-import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+import de.markusbordihn.lobby.dimension.ManagedDimensionRegistry;
 
 public class DataPackHandler {
 
@@ -40,43 +37,17 @@ public class DataPackHandler {
   protected DataPackHandler() {}
 
   public static void prepareDataPackOnce(ServerLevel level) {
-    if (level == DimensionManager.getLobbyDimension()) {
-      if (LobbyData.get().getDimensionLoaded()) {
-        log.info("Skip Data Pack for lobby dimension {} because it was already loaded!", level);
-      } else {
-        prepareDataPack(level);
-        LobbyData.get().setDimensionLoaded(true);
-      }
-    } else if (level == DimensionManager.getMiningDimension()) {
-      if (MiningData.get().getDimensionLoaded()) {
-        log.info("Skip Data Pack for mining dimension {} because it was already loaded!", level);
-      } else {
-        prepareDataPack(level);
-        MiningData.get().setDimensionLoaded(true);
-      }
-    } else if (level == DimensionManager.getFishingDimension()) {
-      if (FishingData.get().getDimensionLoaded()) {
-        log.info("Skip Data Pack for fishing dimension {} because it was already loaded!", level);
-      } else {
-        prepareDataPack(level);
-        FishingData.get().setDimensionLoaded(true);
-      }
-    } else if (level == DimensionManager.getGamingDimension()) {
-      if (GamingData.get().getDimensionLoaded()) {
-        log.info("Skip Data Pack for gaming dimension {} because it was already loaded!", level);
-      } else {
-        prepareDataPack(level);
-        GamingData.get().setDimensionLoaded(true);
-      }
-    } else if (level == DimensionManager.getVoidDimension()) {
-      if (VoidData.get().getDimensionLoaded()) {
-        log.info("Skip Data Pack for void dimension {} because it was already loaded!", level);
-      } else {
-        prepareDataPack(level);
-        VoidData.get().setDimensionLoaded(true);
-      }
-    } else {
+    ManagedDimension managedDimension = ManagedDimensionRegistry.get()
+        .getByDimension(level.dimension().location().toString());
+    LobbyData lobbyData = LobbyData.get();
+    if (managedDimension == null || lobbyData == null) {
       log.warn("Unable to get status for level {} to confirm data pack load status!", level);
+    } else if (lobbyData.getDimensionLoaded(managedDimension.getId())) {
+      log.info("Skip Data Pack for {} dimension {} because it was already loaded!",
+          managedDimension.getId(), level);
+    } else {
+      prepareDataPack(level);
+      lobbyData.setDimensionLoaded(managedDimension.getId(), true);
     }
   }
 
@@ -0,0 +1,77 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.living.LivingEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.stats.LobbyStats;
+
+/**
+ * Freezes the decorative entities of the data pack structures, like villagers, cats and fish, as
+ * long as no player is near them. Frozen entities skip their whole tick, including AI, path
+ * finding and physics.
+ */
+@EventBusSubscriber
+public class DecorativeEntityManager {
+
+  public static final String DECORATIVE_TAG = "lobby_decorative";
+
+  protected DecorativeEntityManager() {}
+
+  @SubscribeEvent(priority = EventPriority.LOW)
+  public static void handleEntityJoinLevelEvent(EntityJoinLevelEvent event) {
+    Entity entity = event.getEntity();
+    Level level = event.getLevel();
+    if (level.isClientSide() || !(entity instanceof Mob) || !entity.isInvulnerable()
+        || entity.getTags().contains(DECORATIVE_TAG)) {
+      return;
+    }
+
+    // Tag invulnerable mobs which were summoned by older versions of the data pack.
+    DimensionRoute route = DimensionManager.getRoute(level);
+    if (route != null && route.getRole() != DimensionRole.DEFAULT) {
+      entity.addTag(DECORATIVE_TAG);
+    }
+  }
+
+  @SubscribeEvent(priority = EventPriority.HIGH)
+  public static void handleLivingTickEvent(LivingEvent.LivingTickEvent event) {
+    Entity entity = event.getEntity();
+    if (!entity.getTags().contains(DECORATIVE_TAG)) {
+      return;
+    }
+    Level level = entity.getLevel();
+    int radius = LobbyConfigSnapshot.get().generalDecorativeFreezeRadius;
+    if (radius > 0 && !level.isClientSide()
+        && !level.hasNearbyAlivePlayer(entity.getX(), entity.getY(), entity.getZ(), radius)) {
+      event.setCanceled(true);
+      LobbyStats.increment(LobbyStats.Counter.ENTITY_TICKS_FROZEN);
+    }
+  }
+}
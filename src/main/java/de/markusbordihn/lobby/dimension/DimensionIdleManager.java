@@ -0,0 +1,126 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.server.level.ServerLevel;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.teleporter.SpawnChunkWarmer;
+
+/**
+ * Parks managed dimensions which have been empty for a while, by dropping their spawn chunk
+ * tickets. Without tickets and players the chunks unload and the level has almost nothing left to
+ * tick. The first teleport into a parked dimension activates it again.
+ */
+@EventBusSubscriber
+public class DimensionIdleManager {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  private static final int IDLE_CHECK_INTERVAL_TICKS = 20;
+
+  private static final Map<String, Long> lastOccupiedMap = new HashMap<>();
+  private static final Set<String> parkedDimensions = new HashSet<>();
+  private static int ticker = 0;
+
+  protected DimensionIdleManager() {}
+
+  @SubscribeEvent
+  public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    lastOccupiedMap.clear();
+    parkedDimensions.clear();
+    ticker = 0;
+  }
+
+  @SubscribeEvent
+  public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
+    if (event.phase == TickEvent.Phase.START || ++ticker < IDLE_CHECK_INTERVAL_TICKS) {
+      return;
+    }
+    ticker = 0;
+    int idleMinutes = LobbyConfigSnapshot.get().teleportWarmIdleMinutes;
+    if (idleMinutes <= 0 && parkedDimensions.isEmpty()) {
+      return;
+    }
+
+    long currentTime = System.currentTimeMillis();
+    long idleTimeout = idleMinutes * 60_000L;
+    for (ManagedDimension managedDimension : ManagedDimensionRegistry.get().getAll()) {
+      if (!managedDimension.isEnabled() || managedDimension.getRole() == DimensionRole.DEFAULT) {
+        continue;
+      }
+      ServerLevel level = DimensionManager.getDimension(managedDimension);
+      if (level == null) {
+        continue;
+      }
+      String id = managedDimension.getId();
+      if (!level.players().isEmpty() || idleMinutes <= 0) {
+        // Players could also arrive without our teleports, like with portals or other mods.
+        lastOccupiedMap.put(id, currentTime);
+        activate(managedDimension);
+      } else if (!parkedDimensions.contains(id)
+          && currentTime - lastOccupiedMap.computeIfAbsent(id, key -> currentTime) >= idleTimeout) {
+        park(managedDimension);
+      }
+    }
+  }
+
+  /**
+   * Activates the given dimension again, if it was parked.
+   */
+  public static void activate(ManagedDimension managedDimension) {
+    if (parkedDimensions.remove(managedDimension.getId())) {
+      lastOccupiedMap.put(managedDimension.getId(), System.currentTimeMillis());
+      log.info("{} Activate parked dimension {}.", Constants.LOG_DIMENSION_MANAGER_PREFIX,
+          managedDimension.getId());
+      SpawnChunkWarmer.warm(managedDimension);
+    }
+  }
+
+  public static boolean isParked(ManagedDimension managedDimension) {
+    return parkedDimensions.contains(managedDimension.getId());
+  }
+
+  public static int getParkedDimensions() {
+    return parkedDimensions.size();
+  }
+
+  private static void park(ManagedDimension managedDimension) {
+    parkedDimensions.add(managedDimension.getId());
+    log.info("{} Park dimension {}, which has been empty for {} minutes.",
+        Constants.LOG_DIMENSION_MANAGER_PREFIX, managedDimension.getId(),
+        LobbyConfigSnapshot.get().teleportWarmIdleMinutes);
+    SpawnChunkWarmer.release(managedDimension);
+  }
+}
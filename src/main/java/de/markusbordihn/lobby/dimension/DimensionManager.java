@@ -19,12 +19,19 @@
 
 package de.markusbordihn.lobby.dimension;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
@@ -32,8 +39,11 @@ import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.effect.MobEffects;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.GameType;
+import net.minecraft.world.level.Level;
 
 import net.minecraftforge.event.entity.player.PlayerEvent.PlayerChangedDimensionEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent.PlayerLoggedOutEvent;
+import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.event.server.ServerAboutToStartEvent;
 import net.minecraftforge.event.server.ServerStartedEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -41,8 +51,11 @@ import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.server.ServerLifecycleHooks;
 
 import de.markusbordihn.lobby.Constants;
-import de.markusbordihn.lobby.config.CommonConfig;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot.DimensionSettings;
 import de.markusbordihn.lobby.datapack.DataPackHandler;
+import de.markusbordihn.lobby.player.BuilderIndex;
+import de.markusbordihn.lobby.stats.LobbyStats;
 import de.markusbordihn.lobby.teleporter.TeleporterManager;
 
 @EventBusSubscriber
@@ -50,143 +63,128 @@ public class DimensionManager {
 
   private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
 
-  private static final CommonConfig.Config COMMON = CommonConfig.COMMON;
-
   private static Set<ServerPlayer> gameTypeReset = ConcurrentHashMap.newKeySet();
-  private static Set<String> ignoredDimension = ConcurrentHashMap.newKeySet();
 
-  private static ServerLevel defaultLevel = null;
-  private static ServerLevel fishingLevel = null;
-  private static ServerLevel gamingLevel = null;
-  private static ServerLevel lobbyLevel = null;
-  private static ServerLevel miningLevel = null;
-  private static ServerLevel voidLevel = null;
+  // Immutable routing table for all managed levels, replaced as a whole on changes.
+  private static volatile Map<ResourceKey<Level>, DimensionRoute> routingTable =
+      Collections.emptyMap();
+  private static volatile LobbyConfigSnapshot routingConfig = null;
 
   protected DimensionManager() {}
 
   @SubscribeEvent
   public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
-    // Reset mapping to avoid issues.
-    defaultLevel = null;
-    fishingLevel = null;
-    lobbyLevel = null;
-    miningLevel = null;
+    // Reset routing to avoid stale levels after a restart of the integrated server.
+    routingTable = Collections.emptyMap();
+    routingConfig = null;
+  }
+
+  @SubscribeEvent
+  public static void handleLevelLoadEvent(LevelEvent.Load event) {
+    // Register route as soon as the level is loaded, to cover events before the server started.
+    if (event.getLevel() instanceof ServerLevel serverLevel) {
+      DimensionRoute route = createRoute(serverLevel);
+      if (route != null) {
+        Map<ResourceKey<Level>, DimensionRoute> routes = new IdentityHashMap<>(routingTable);
+        routes.put(serverLevel.dimension(), route);
+        routingTable = Collections.unmodifiableMap(routes);
+      }
+    }
+  }
+
+  @SubscribeEvent
+  public static void handleLevelUnloadEvent(LevelEvent.Unload event) {
+    if (event.getLevel() instanceof ServerLevel serverLevel
+        && routingTable.containsKey(serverLevel.dimension())) {
+      Map<ResourceKey<Level>, DimensionRoute> routes = new IdentityHashMap<>(routingTable);
+      routes.remove(serverLevel.dimension());
+      routingTable = Collections.unmodifiableMap(routes);
+    }
+  }
+
+  @SubscribeEvent
+  public static void handlePlayerLoggedOutEvent(PlayerLoggedOutEvent event) {
+    // Drop cached builder status, it will be resolved again on the next login.
+    UUID uuid = event.getEntity().getUUID();
+    for (DimensionRoute route : routingTable.values()) {
+      route.forgetBuilder(uuid);
+    }
   }
 
   @SubscribeEvent
   public static void handleServerStartedEvent(ServerStartedEvent event) {
-    // Map dimension and init dimension structure if needed.
+    // Check dimensions and init dimension structure if needed.
     mapServerLevel(event.getServer());
 
-    if (COMMON.defaultFallProtection.get() > 0) {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    if (config.defaultFallProtection > 0) {
       log.info("{} Enable fall protection for default dimension for {} ticks.",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.defaultFallProtection.get());
+          Constants.LOG_DIMENSION_MANAGER_PREFIX, config.defaultFallProtection);
     } else {
       log.warn("{} Disable fall protection for default dimension!",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
 
-    if (COMMON.defaultFireProtection.get() > 0) {
+    if (config.defaultFireProtection > 0) {
       log.info("{} Enable fire protection for default dimension for {} ticks.",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.defaultFallProtection.get());
+          Constants.LOG_DIMENSION_MANAGER_PREFIX, config.defaultFallProtection);
     } else {
       log.warn("{} Disable fire protection for default dimension!",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
 
-    if (COMMON.defaultHeal.get() > 0) {
+    if (config.defaultHeal > 0) {
       log.info("{} Enable heal for default dimension for {} ticks.",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.defaultHeal.get());
+          Constants.LOG_DIMENSION_MANAGER_PREFIX, config.defaultHeal);
     }
   }
 
   @SubscribeEvent
   public static void onChangeDimension(PlayerChangedDimensionEvent event) {
-    Player player = event.getEntity();
-    String fromLocation = event.getFrom().location().toString();
-    String toLocation = event.getTo().location().toString();
-
-    // Make sure normal users are in Adventure mode for the fishing dimension even if they are using
-    // tp or similar commands.
-    if (toLocation.equals(COMMON.fishingDimension.get())) {
-      if (!COMMON.fishingBuilderList.get().isEmpty()
-          && COMMON.fishingBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for fishing dimension.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
-        changeGameType(player, GameType.CREATIVE);
-      } else {
-        changeGameType(player, GameType.ADVENTURE);
-      }
-      return;
-    }
-
-    // Make sure normal users are in Adventure mode for the gaming dimension even if they are using
-    // tp or similar commands.
-    if (toLocation.equals(COMMON.gamingDimension.get())) {
-      if (!COMMON.gamingBuilderList.get().isEmpty()
-          && COMMON.gamingBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for gaming dimension.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
-        changeGameType(player, GameType.CREATIVE);
-      } else {
-        changeGameType(player, GameType.ADVENTURE);
-      }
-      return;
-    }
-
-    // Make sure normal users are in Adventure mode for the lobby dimension even if they are using
-    // tp or similar commands.
-    if (toLocation.equals(COMMON.lobbyDimension.get())) {
-      if (!COMMON.lobbyBuilderList.get().isEmpty()
-          && COMMON.lobbyBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for lobby.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
-        changeGameType(player, GameType.CREATIVE);
-      } else {
-        changeGameType(player, GameType.ADVENTURE);
-      }
-      return;
-    }
-
-    // Make sure normal users are in survival mode for the mining dimension even if they are using
-    // tp or similar commands.
-    if (toLocation.equals(COMMON.miningDimension.get())) {
-      changeGameType(player, GameType.SURVIVAL);
-      return;
-    }
+    long startTimer = LobbyStats.startTimer();
+    LobbyStats.increment(LobbyStats.Counter.DIMENSION_CHANGES);
+    changeDimension(event);
+    LobbyStats.stopTimer(LobbyStats.Timer.CHANGE_DIMENSION, startTimer);
+  }
 
-    // Make sure builders are in creative mode for the void dimension even if they are using
-    // tp or similar commands.
-    if (toLocation.equals(COMMON.voidDimension.get())) {
-      if (!COMMON.voidBuilderList.get().isEmpty()
-          && COMMON.voidBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for void.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
+  private static void changeDimension(PlayerChangedDimensionEvent event) {
+    Player player = event.getEntity();
+    Map<ResourceKey<Level>, DimensionRoute> routes = getRoutingTable();
+
+    // Make sure normal users are in the expected game mode for the managed dimension even if they
+    // are using tp or similar commands.
+    DimensionRoute toRoute = routes.get(event.getTo());
+    if (toRoute != null && toRoute.getRole() != DimensionRole.DEFAULT) {
+      if (toRoute.isBuilder(player)) {
+        log.info("{} Give builder {} creative mode for {} dimension.",
+            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString(),
+            toRoute.getRole().getDisplayName());
         changeGameType(player, GameType.CREATIVE);
+      } else if (toRoute.getGameType() != null) {
+        changeGameType(player, toRoute.getGameType());
       }
       return;
     }
 
     // Reset game type to survival if user is on the gameTypeReset list or comes from the fishing,
     // gaming, lobby or void dimensions.
+    DimensionRoute fromRoute = routes.get(event.getFrom());
     if (player instanceof ServerPlayer serverPlayer && (gameTypeReset.contains(serverPlayer)
-        || (!fromLocation.isEmpty() && (fromLocation.equals(COMMON.lobbyDimension.get())
-            || fromLocation.equals(COMMON.fishingDimension.get())
-            || fromLocation.equals(COMMON.gamingDimension.get())
-            || fromLocation.equals(COMMON.voidDimension.get()))))) {
+        || (fromRoute != null && fromRoute.shouldResetGameTypeOnLeave()))) {
+      LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
 
       // Add fall and fire protection for the player, if enabled.
-      if (COMMON.defaultFallProtection.get() > 0) {
+      if (config.defaultFallProtection > 0) {
         player.addEffect(new MobEffectInstance(MobEffects.SLOW_FALLING,
-            COMMON.defaultFallProtection.get(), 0, false, true, false));
+            config.defaultFallProtection, 0, false, true, false));
         player.resetFallDistance();
       }
-      if (COMMON.defaultFireProtection.get() > 0) {
+      if (config.defaultFireProtection > 0) {
         player.addEffect(new MobEffectInstance(MobEffects.FIRE_RESISTANCE,
-            COMMON.defaultFireProtection.get(), 0, false, true, false));
+            config.defaultFireProtection, 0, false, true, false));
       }
-      if (COMMON.defaultHeal.get() > 0) {
-        player.addEffect(new MobEffectInstance(MobEffects.HEAL, COMMON.defaultHeal.get(), 0, false,
+      if (config.defaultHeal > 0) {
+        player.addEffect(new MobEffectInstance(MobEffects.HEAL, config.defaultHeal, 0, false,
             true, false));
       }
 
@@ -201,236 +199,179 @@ public class DimensionManager {
   }
 
   private static void mapServerLevel(MinecraftServer server) {
-    // Skip search if we already found all relevant dimensions.
-    if (defaultLevel != null && lobbyLevel != null && miningLevel != null && fishingLevel != null) {
-      return;
-    }
-
-    // Mapping names to server level for easier access.
-    for (ServerLevel serverLevel : server.getAllLevels()) {
-      String dimensionLocation = serverLevel.dimension().location().toString();
-      if (dimensionLocation.equals(COMMON.defaultDimension.get())) {
-        if (defaultLevel == null) {
-          log.info("{} ✔️ Found default dimension with name {}: {}",
-              Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.defaultDimension.get(), serverLevel);
-          defaultLevel = serverLevel;
-        }
-      } else if (Boolean.TRUE.equals(COMMON.lobbyEnabled.get())
-          && dimensionLocation.equals(COMMON.lobbyDimension.get())) {
-        if (lobbyLevel == null) {
-          log.info("{} ✔️ Found lobby dimension with name {}: {}",
-              Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.lobbyDimension.get(), serverLevel);
-          lobbyLevel = serverLevel;
-          DataPackHandler.prepareDataPackOnce(lobbyLevel);
-        }
-      } else if (Boolean.TRUE.equals(COMMON.miningEnabled.get())
-          && dimensionLocation.equals(COMMON.miningDimension.get())) {
-        if (miningLevel == null) {
-          log.info("{} ✔️ Found mining dimension with name {}: {}",
-              Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.miningDimension.get(), serverLevel);
-          miningLevel = serverLevel;
-          DataPackHandler.prepareDataPackOnce(miningLevel);
-        }
-      } else if (Boolean.TRUE.equals(COMMON.fishingEnabled.get())
-          && dimensionLocation.equals(COMMON.fishingDimension.get())) {
-        if (fishingLevel == null) {
-          log.info("{} ✔️ Found fishing dimension with name {}: {}",
-              Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.fishingDimension.get(), serverLevel);
-          fishingLevel = serverLevel;
-          DataPackHandler.prepareDataPackOnce(fishingLevel);
-        }
-      } else if (Boolean.TRUE.equals(COMMON.gamingEnabled.get())
-          && dimensionLocation.equals(COMMON.gamingDimension.get())) {
-        if (gamingLevel == null) {
-          log.info("{} ✔️ Found gaming dimension with name {}: {}",
-              Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.gamingDimension.get(), serverLevel);
-          gamingLevel = serverLevel;
-          DataPackHandler.prepareDataPackOnce(gamingLevel);
-        }
-      } else if (Boolean.TRUE.equals(COMMON.voidEnabled.get())
-          && dimensionLocation.equals(COMMON.voidDimension.get())) {
-        if (voidLevel == null) {
-          log.info("{} ✔️ Found void dimension with name {}: {}",
-              Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.voidDimension.get(), serverLevel);
-          voidLevel = serverLevel;
-          DataPackHandler.prepareDataPackOnce(voidLevel);
-        }
-      } else {
-        if (ignoredDimension.isEmpty() || !ignoredDimension.contains(dimensionLocation)) {
-          log.info("{} Ignore dimension {}: {}", Constants.LOG_DIMENSION_MANAGER_PREFIX,
-              dimensionLocation, serverLevel);
-        } else {
-          ignoredDimension.add(dimensionLocation);
-        }
+    // Report the managed dimensions and prepare the data pack structures of the built-in ones.
+    for (ManagedDimension managedDimension : ManagedDimensionRegistry.get().getAll()) {
+      if (!managedDimension.isEnabled() && managedDimension.getRole() != DimensionRole.DEFAULT) {
+        continue;
+      }
+      ServerLevel serverLevel = getDimension(managedDimension);
+      if (serverLevel == null) {
+        log.error("{} ⚠️ Unable to find {} dimension named {}!",
+            Constants.LOG_DIMENSION_MANAGER_PREFIX, managedDimension.getId(),
+            managedDimension.getDimension());
+        continue;
+      }
+      log.info("{} ✔️ Found {} dimension with name {}: {}",
+          Constants.LOG_DIMENSION_MANAGER_PREFIX, managedDimension.getId(),
+          managedDimension.getDimension(), serverLevel);
+      if (managedDimension.getRole().isBuiltIn()
+          && managedDimension.getRole() != DimensionRole.DEFAULT) {
+        DataPackHandler.prepareDataPackOnce(serverLevel);
       }
     }
 
-    // Give error messages, if we are unable to match any dimension.
-    if (defaultLevel == null) {
-      log.error("{} ⚠️ Unable to find default dimension named {}!",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.defaultDimension.get());
-    }
-    if (fishingLevel == null && COMMON.fishingEnabled.get()) {
-      log.error("{} ⚠️ Unable to find fishing dimension named {}!",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.fishingDimension.get());
-    }
-    if (gamingLevel == null && COMMON.gamingEnabled.get()) {
-      log.error("{} ⚠️ Unable to find gaming dimension named {}!",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.gamingDimension.get());
-    }
-    if (lobbyLevel == null && COMMON.lobbyEnabled.get()) {
-      log.error("{} ⚠️ Unable to find lobby dimension named {}!",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.lobbyDimension.get());
-    }
-    if (miningLevel == null && COMMON.miningEnabled.get()) {
-      log.error("{} ⚠️ Unable to find mining dimension named {}!",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.miningDimension.get());
-    }
-    if (voidLevel == null && COMMON.voidEnabled.get()) {
-      log.error("{} ⚠️ Unable to find void dimension named {}!",
-          Constants.LOG_DIMENSION_MANAGER_PREFIX, COMMON.voidDimension.get());
-    }
-
-    if (defaultLevel != null && fishingLevel == null && lobbyLevel == null && miningLevel == null) {
+    if (getDimension(DimensionRole.DEFAULT) != null
+        && getDimension(DimensionRole.FISHING) == null
+        && getDimension(DimensionRole.LOBBY) == null
+        && getDimension(DimensionRole.MINING) == null) {
       log.error("{} ⚠️ Unable to find the needed custom dimensions!\n"
           + "If this is the first time you see this message or if you just started a new world, try to restart your server to generate them automatically!",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
-  }
 
-  public static ServerLevel getLobbyDimension() {
-    if (lobbyLevel == null) {
-      mapServerLevel(ServerLifecycleHooks.getCurrentServer());
+    // Build routing table once for all known levels.
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    Map<ResourceKey<Level>, DimensionRoute> routes = new IdentityHashMap<>();
+    for (ServerLevel serverLevel : server.getAllLevels()) {
+      DimensionRoute route = createRoute(serverLevel);
+      if (route != null) {
+        log.debug("{} Adding route {}", Constants.LOG_DIMENSION_MANAGER_PREFIX, route);
+        routes.put(serverLevel.dimension(), route);
+      } else {
+        log.info("{} Ignore dimension {}: {}", Constants.LOG_DIMENSION_MANAGER_PREFIX,
+            serverLevel.dimension().location(), serverLevel);
+      }
     }
-    return lobbyLevel;
+    routingTable = Collections.unmodifiableMap(routes);
+    routingConfig = config;
   }
 
-  public static String getLobbyDimensionName() {
-    return COMMON.lobbyDimension.get();
-  }
-
-
-  public static ServerLevel getFishingDimension() {
-    if (fishingLevel == null) {
-      mapServerLevel(ServerLifecycleHooks.getCurrentServer());
+  private static Map<ResourceKey<Level>, DimensionRoute> getRoutingTable() {
+    // Rebuild routing table, if the config was reloaded in the meantime.
+    if (routingConfig != LobbyConfigSnapshot.get() && !routingTable.isEmpty()) {
+      rebuildRoutingTable();
     }
-    return fishingLevel;
-  }
-
-  public static String getFishingDimensionName() {
-    return COMMON.fishingDimension.get();
+    return routingTable;
   }
 
-  public static ServerLevel getGamingDimension() {
-    if (gamingLevel == null) {
-      mapServerLevel(ServerLifecycleHooks.getCurrentServer());
+  private static synchronized void rebuildRoutingTable() {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    if (routingConfig == config) {
+      return;
     }
-    return gamingLevel;
-  }
-
-  public static String getGamingDimensionName() {
-    return COMMON.gamingDimension.get();
+    // Consider all loaded levels, because managed dimensions could be added with the reload.
+    MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+    Iterable<ServerLevel> serverLevels = server != null ? server.getAllLevels()
+        : routingTable.values().stream().map(DimensionRoute::getLevel).toList();
+    Map<ResourceKey<Level>, DimensionRoute> routes = new IdentityHashMap<>();
+    for (ServerLevel serverLevel : serverLevels) {
+      DimensionRoute updatedRoute = createRoute(serverLevel);
+      if (updatedRoute != null) {
+        routes.put(serverLevel.dimension(), updatedRoute);
+      }
+    }
+    log.info("{} Rebuild routing table for {} dimensions after config reload.",
+        Constants.LOG_DIMENSION_MANAGER_PREFIX, routes.size());
+    routingTable = Collections.unmodifiableMap(routes);
+    routingConfig = config;
   }
 
-  public static ServerLevel getMiningDimension() {
-    if (miningLevel == null) {
-      mapServerLevel(ServerLifecycleHooks.getCurrentServer());
+  private static DimensionRoute createRoute(ServerLevel serverLevel) {
+    ManagedDimension managedDimension = ManagedDimensionRegistry.get()
+        .getByDimension(serverLevel.dimension().location().toString());
+    if (managedDimension == null) {
+      return null;
+    }
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    DimensionSettings settings = managedDimension.getSettings();
+
+    // Bat spawning in the mining dimension is handled as built-in rule after the configured rules.
+    List<String> builtInSpawnRules = managedDimension.getRole() == DimensionRole.MINING
+        ? List.of(config.miningDisableBatSpawning ? "deny minecraft:bat" : "allow minecraft:bat")
+        : List.of();
+    SpawnPolicy spawnPolicy = SpawnPolicy.compile(managedDimension.getId(),
+        config.spawnPolicyRules, builtInSpawnRules);
+    int[] populationCaps =
+        EntityPopulationTracker.parseCaps(managedDimension.getId(), config.spawnPopulationCaps);
+    switch (managedDimension.getRole()) {
+      case MINING:
+        return new DimensionRoute(managedDimension, serverLevel, GameType.SURVIVAL,
+            BuilderIndex.EMPTY, settings.disableMobSpawning, false,
+            new EntityTypeDecisionCache(config.miningDisableMinecartChestSpawning,
+                settings.disableMobSpawning),
+            spawnPolicy, populationCaps);
+      case VOID:
+        return new DimensionRoute(managedDimension, serverLevel, null, settings.builderIndex,
+            settings.disableMobSpawning, true, null, spawnPolicy, populationCaps);
+      case DEFAULT:
+        return new DimensionRoute(managedDimension, serverLevel, null, BuilderIndex.EMPTY, false,
+            false, null, spawnPolicy, populationCaps);
+      default:
+        return new DimensionRoute(managedDimension, serverLevel, GameType.ADVENTURE,
+            settings.builderIndex, settings.disableMobSpawning, true, null, spawnPolicy,
+            populationCaps);
     }
-    return miningLevel;
   }
 
-  public static ServerLevel getMiningDimensionRaw() {
-    return miningLevel;
+  public static DimensionRoute getRoute(ResourceKey<Level> dimension) {
+    return getRoutingTable().get(dimension);
   }
 
-  public static String getMiningDimensionName() {
-    return COMMON.miningDimension.get();
+  public static DimensionRoute getRoute(Level level) {
+    return getRoutingTable().get(level.dimension());
   }
 
-  public static ServerLevel getDefaultDimension() {
-    if (defaultLevel == null) {
-      mapServerLevel(ServerLifecycleHooks.getCurrentServer());
-    }
-    return defaultLevel;
+  public static Collection<DimensionRoute> getRoutes() {
+    return getRoutingTable().values();
   }
 
-  public static String getDefaultDimensionName() {
-    return COMMON.defaultDimension.get();
-  }
-
-  public static ServerLevel getVoidDimension() {
-    if (voidLevel == null) {
-      mapServerLevel(ServerLifecycleHooks.getCurrentServer());
-    }
-    return voidLevel;
+  public static ServerLevel getLobbyDimension() {
+    return getDimension(DimensionRole.LOBBY);
   }
 
-  public static String getVoidDimensionName() {
-    return COMMON.voidDimension.get();
+  public static String getLobbyDimensionName() {
+    return LobbyConfigSnapshot.get().lobbySettings.dimension;
   }
 
-  public static void teleportToDefault(ServerPlayer player) {
-    if (TeleporterManager.teleportToDefaultDimension(player)) {
-      changeGameType(player, GameType.SURVIVAL);
-    }
+  public static ServerLevel getDimension(DimensionRole role) {
+    return getDimension(ManagedDimensionRegistry.get().getBuiltIn(role));
   }
 
-  public static void teleportToFishing(ServerPlayer player) {
-    if (TeleporterManager.teleportToFishingDimension(player)) {
-      if (!COMMON.fishingBuilderList.get().isEmpty()
-          && COMMON.fishingBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for fishing dimension.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
-        changeGameType(player, GameType.CREATIVE);
-      } else {
-        changeGameType(player, GameType.ADVENTURE);
-      }
+  /**
+   * @return the level of the given dimension or null, if it is disabled or was not found.
+   */
+  public static ServerLevel getDimension(ManagedDimension managedDimension) {
+    if (managedDimension == null || managedDimension.getDimensionKey() == null
+        || (!managedDimension.isEnabled() && managedDimension.getRole() != DimensionRole.DEFAULT)) {
+      return null;
     }
+    MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+    return server != null ? server.getLevel(managedDimension.getDimensionKey()) : null;
   }
 
-  public static void teleportToGaming(ServerPlayer player) {
-    if (TeleporterManager.teleportToGamingDimension(player)) {
-      if (!COMMON.gamingBuilderList.get().isEmpty()
-          && COMMON.gamingBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for gaming.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
-        changeGameType(player, GameType.CREATIVE);
-      } else {
-        changeGameType(player, GameType.ADVENTURE);
-      }
-    }
+  public static boolean teleportToLobby(ServerPlayer player) {
+    return teleportTo(player, ManagedDimensionRegistry.get().getBuiltIn(DimensionRole.LOBBY));
   }
 
-  public static void teleportToLobby(ServerPlayer player) {
-    if (TeleporterManager.teleportToLobbyDimension(player)) {
-      if (!COMMON.lobbyBuilderList.get().isEmpty()
-          && COMMON.lobbyBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for lobby.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
-        changeGameType(player, GameType.CREATIVE);
-      } else {
-        changeGameType(player, GameType.ADVENTURE);
-      }
+  public static boolean teleportTo(ServerPlayer player, ManagedDimension managedDimension) {
+    if (!TeleporterManager.teleportToDimension(player, managedDimension,
+        getDimension(managedDimension))) {
+      return false;
     }
-  }
-
-  public static void teleportToMining(ServerPlayer player) {
-    if (TeleporterManager.teleportToMiningDimension(player)) {
-      changeGameType(player, GameType.SURVIVAL);
+    GameType gameType = managedDimension.getRole().getTeleportGameType();
+    if (gameType != GameType.SURVIVAL && isBuilder(player, player.getLevel())) {
+      log.info("{} Give builder {} creative mode for {}.", Constants.LOG_DIMENSION_MANAGER_PREFIX,
+          player.getName().getString(), managedDimension.getId());
+      changeGameType(player, GameType.CREATIVE);
+    } else {
+      changeGameType(player, gameType);
     }
+    return true;
   }
 
-  public static void teleportToVoid(ServerPlayer player) {
-    if (TeleporterManager.teleportToVoidDimension(player)) {
-      if (!COMMON.voidBuilderList.get().isEmpty()
-          && COMMON.voidBuilderList.get().contains(player.getName().getString())) {
-        log.info("{} Give builder {} creative mode for void.",
-            Constants.LOG_DIMENSION_MANAGER_PREFIX, player.getName().getString());
-        changeGameType(player, GameType.CREATIVE);
-      } else {
-        changeGameType(player, GameType.ADVENTURE);
-      }
-    }
+  private static boolean isBuilder(ServerPlayer player, Level level) {
+    DimensionRoute route = getRoute(level);
+    return route != null && route.isBuilder(player);
   }
 
   public static void changeGameType(Player player, GameType gameType) {
@@ -19,32 +19,20 @@
 
 package de.markusbordihn.lobby.dimension;
 
-import java.util.Set;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import net.minecraft.core.BlockPos;
-import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
-import net.minecraft.world.entity.ExperienceOrb;
-import net.minecraft.world.entity.LightningBolt;
-import net.minecraft.world.entity.ambient.Bat;
-import net.minecraft.world.entity.item.FallingBlockEntity;
-import net.minecraft.world.entity.item.ItemEntity;
-import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.entity.MobSpawnType;
 import net.minecraft.world.entity.projectile.Projectile;
-import net.minecraft.world.entity.vehicle.MinecartChest;
 import net.minecraft.world.level.BaseSpawner;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.LevelAccessor;
-import net.minecraft.world.level.block.entity.BarrelBlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.ChestBlockEntity;
-import net.minecraft.world.level.block.entity.SpawnerBlockEntity;
-import net.minecraft.world.level.chunk.ChunkAccess;
-import net.minecraft.world.level.dimension.DimensionType;
 
+import net.minecraftforge.event.TagsUpdatedEvent;
 import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.event.entity.living.LivingSpawnEvent;
 import net.minecraftforge.event.level.ChunkEvent;
@@ -55,130 +43,129 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 
 import de.markusbordihn.lobby.Constants;
-import de.markusbordihn.lobby.config.CommonConfig;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.stats.LobbyStats;
 
 @EventBusSubscriber
 public class DimensionManagerEventHandler {
 
   private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
 
-  private static final CommonConfig.Config COMMON = CommonConfig.COMMON;
-
   protected DimensionManagerEventHandler() {}
 
   @SubscribeEvent
   public static void handleServerStartedEvent(ServerStartedEvent event) {
-    if (Boolean.TRUE.equals(COMMON.fishingDisableMobSpawning.get())) {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    if (config.fishingSettings.disableMobSpawning) {
       log.info("{} Disable Mob Spawning for fishing dimension.",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
-    if (Boolean.TRUE.equals(COMMON.lobbyDisableMobSpawning.get())) {
+    if (config.lobbySettings.disableMobSpawning) {
       log.info("{} Disable mob spawning for lobby dimension.",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
-    if (Boolean.TRUE.equals(COMMON.miningDisableMobSpawning.get())) {
+    if (config.miningSettings.disableMobSpawning) {
       log.info("{} Disable mob spawning for mining dimension.",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
-    if (Boolean.TRUE.equals(COMMON.miningDisableBatSpawning.get())) {
+    if (config.miningDisableBatSpawning) {
       log.info("{} Disable bat spawning for mining dimension.",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
-    if (Boolean.TRUE.equals(COMMON.miningDisableMinecartChestSpawning.get())) {
+    if (config.miningDisableMinecartChestSpawning) {
       log.info("{} Disable minecraft chest spawning for mining dimension.",
           Constants.LOG_DIMENSION_MANAGER_PREFIX);
     }
-  }
-
-  @SubscribeEvent(priority = EventPriority.HIGHEST)
-  public static void handleEntityJoinLevelEvent(EntityJoinLevelEvent event) {
-
-    // Ignore client side.
-    Level level = event.getLevel();
-    if (level.isClientSide()) {
-      return;
-    }
-
-    // Ignore everything which is not the mining dimension.
-    String dimensionLocation = level.dimension().location().toString();
-    if (!dimensionLocation.equals(COMMON.miningDimension.get())) {
-      return;
-    }
-
-    // Ignore specific entities and deny spawn of all others.
-    Entity entity = event.getEntity();
-    if (entity instanceof ItemEntity || entity instanceof ExperienceOrb
-        || entity instanceof LightningBolt || entity instanceof FallingBlockEntity
-        || entity instanceof Projectile || entity instanceof Player) {
-      return;
+    for (DimensionRoute route : DimensionManager.getRoutes()) {
+      if (route.getSpawnPolicy() != null) {
+        log.info("{} Using {} spawn rules for {} dimension.",
+            Constants.LOG_DIMENSION_MANAGER_PREFIX, route.getSpawnPolicy().size(),
+            route.getManagedDimension().getId());
+      }
     }
+  }
 
-    // Allow/deny Minecart Chest spawning
-    if (Boolean.TRUE.equals(COMMON.miningDisableMinecartChestSpawning.get())
-        && entity instanceof MinecartChest) {
-      event.setResult(Event.Result.DENY);
+  @SubscribeEvent
+  public static void handleTagsUpdatedEvent(TagsUpdatedEvent event) {
+    // Compiled spawn rules could depend on the reloaded entity type tags.
+    for (DimensionRoute route : DimensionManager.getRoutes()) {
+      if (route.getSpawnPolicy() != null) {
+        route.getSpawnPolicy().clear();
+      }
     }
+  }
 
-    // Allow/deny Mob spawning
-    if (Boolean.TRUE.equals(COMMON.miningDisableMobSpawning.get())) {
-      event.setResult(Event.Result.DENY);
-    }
+  @SubscribeEvent(priority = EventPriority.HIGHEST)
+  public static void handleEntityJoinLevelEvent(EntityJoinLevelEvent event) {
+    long startTimer = LobbyStats.startTimer();
+    handleEntityJoin(event);
+    LobbyStats.stopTimer(LobbyStats.Timer.ENTITY_JOIN, startTimer);
   }
 
   @SubscribeEvent(priority = EventPriority.HIGHEST)
   public static void handleLivingCheckSpawnEvent(LivingSpawnEvent.CheckSpawn event) {
+    long startTimer = LobbyStats.startTimer();
     handleSpawnEvent(event);
+    LobbyStats.stopTimer(LobbyStats.Timer.LIVING_SPAWN, startTimer);
   }
 
   @SubscribeEvent(priority = EventPriority.HIGHEST)
   public static void handleLivingSpecialSpawnEvent(LivingSpawnEvent.SpecialSpawn event) {
+    long startTimer = LobbyStats.startTimer();
     handleSpawnEvent(event);
+    LobbyStats.stopTimer(LobbyStats.Timer.LIVING_SPAWN, startTimer);
   }
 
   @SubscribeEvent(priority = EventPriority.HIGHEST)
   public static void handleChunkLoadEvent(ChunkEvent.Load event) {
+    long startTimer = LobbyStats.startTimer();
+    handleChunkLoad(event);
+    LobbyStats.stopTimer(LobbyStats.Timer.CHUNK_LOAD, startTimer);
+  }
+
+  private static void handleEntityJoin(EntityJoinLevelEvent event) {
 
     // Ignore client side.
-    LevelAccessor level = event.getLevel();
+    Level level = event.getLevel();
     if (level.isClientSide()) {
       return;
     }
 
-    // Ignore everything which is not the mining dimension.
-    DimensionType dimensionType = event.getLevel().dimensionType();
-    if (DimensionManager.getMiningDimensionRaw() == null
-        || !DimensionManager.getMiningDimensionRaw().dimensionType().equals(dimensionType)) {
+    // Ignore everything which has no entity filter, like all dimensions except mining.
+    DimensionRoute route = DimensionManager.getRoute(level);
+    if (route == null || route.getEntityJoinDecisions() == null) {
       return;
     }
 
-    ChunkAccess chunk = event.getChunk();
-    Set<BlockPos> blockEntitiesPos = chunk.getBlockEntitiesPos();
-    if (!blockEntitiesPos.isEmpty()) {
-      for (BlockPos blockPos : blockEntitiesPos) {
-        BlockEntity blockEntity = chunk.getBlockEntity(blockPos);
+    // Allow/deny entity spawning by the cached decision for the entity type.
+    if (route.getEntityJoinDecisions()
+        .getDecision(event.getEntity()) == EntityTypeDecisionCache.Decision.DENY) {
+      event.setCanceled(true);
+      LobbyStats.increment(LobbyStats.Counter.ENTITY_JOINS_DENIED);
+    }
+  }
 
-        // Remove spawners.
-        if (COMMON.miningRemoveSpawner.get()
-            && blockEntity instanceof SpawnerBlockEntity spawnerBlockEntity) {
-          log.debug("{} Removing spawner block entity {} at {}",
-              Constants.LOG_DIMENSION_MANAGER_PREFIX, spawnerBlockEntity, blockPos);
-          chunk.removeBlockEntity(blockPos);
-        }
+  private static void handleChunkLoad(ChunkEvent.Load event) {
 
-        // Remove loot chests to avoid easy getting of items in the mining dimension.
-        else if (Boolean.TRUE.equals(COMMON.miningRemoveLootChest.get())
-            && (blockEntity instanceof ChestBlockEntity
-                || blockEntity instanceof BarrelBlockEntity)) {
-          CompoundTag compoundTagSaving = chunk.getBlockEntityNbtForSaving(blockPos);
-          if (compoundTagSaving.contains("LootTable")
-              && !compoundTagSaving.getString("LootTable").isEmpty()) {
-            log.debug("{} Removing loot chest block entity {} at {}",
-                Constants.LOG_DIMENSION_MANAGER_PREFIX, blockEntity, blockPos);
-            chunk.removeBlockEntity(blockPos);
-          }
-        }
+    // Ignore client side.
+    LevelAccessor level = event.getLevel();
+    if (level.isClientSide()) {
+      return;
+    }
 
-      }
+    // Ignore everything which is not the mining dimension.
+    if (!(level instanceof ServerLevel serverLevel)) {
+      return;
+    }
+    DimensionRoute route = DimensionManager.getRoute(serverLevel);
+    if (route == null || route.getRole() != DimensionRole.MINING) {
+      return;
+    }
+
+    // Queue chunk for the scrubber, instead of blocking the chunk load.
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    if (config.miningRemoveSpawner || config.miningRemoveLootChest) {
+      MiningChunkScrubber.enqueue(serverLevel, event.getChunk().getPos());
     }
   }
 
@@ -197,42 +184,45 @@ public class DimensionManagerEventHandler {
     }
 
     // Control spawns depending on the dimension.
-    String dimensionLocation = entity.getLevel().dimension().location().toString();
-    if (COMMON.fishingDimension.get().equals(dimensionLocation)) {
-      handleSpawnEventFishing(event);
-    } else if (COMMON.lobbyDimension.get().equals(dimensionLocation)) {
-      handleSpawnEventLobby(event);
-    } else if (COMMON.gamingDimension.get().equals(dimensionLocation)) {
-      handleSpawnEventGaming(event);
-    } else if (COMMON.miningDimension.get().equals(dimensionLocation)) {
-      handleSpawnEventMining(level, entity, event);
-    } else if (COMMON.voidDimension.get().equals(dimensionLocation)) {
-      handleSpawnEventVoid(event);
+    DimensionRoute route = DimensionManager.getRoute(entity.getLevel());
+    if (route == null) {
+      return;
     }
-  }
-
-  private static void handleSpawnEventFishing(LivingSpawnEvent event) {
-    if (Boolean.TRUE.equals(COMMON.fishingDisableMobSpawning.get())) {
-      event.setResult(Event.Result.DENY);
+    if (route.getRole() == DimensionRole.MINING) {
+      handleSpawnEventMining(level, event);
     }
-  }
 
-  private static void handleSpawnEventGaming(LivingSpawnEvent event) {
-    if (Boolean.TRUE.equals(COMMON.gamingDisableMobSpawning.get())) {
+    // Spawn rules take precedence over the disabled mob spawning of the dimension.
+    SpawnPolicy spawnPolicy = route.getSpawnPolicy();
+    SpawnPolicy.Decision decision = spawnPolicy != null
+        ? spawnPolicy.getDecision(entity, getSpawnType(event))
+        : SpawnPolicy.Decision.DEFAULT;
+    if (decision == SpawnPolicy.Decision.DENY
+        || (decision == SpawnPolicy.Decision.DEFAULT && route.isMobSpawningDisabled())) {
       event.setResult(Event.Result.DENY);
+    } else if (route.hasPopulationCaps()) {
+      // Deny further spawns, if the population cap of the category is reached.
+      MobCategory category = entity.getType().getCategory();
+      int populationCap = route.getPopulationCap(category);
+      if (populationCap >= 0
+          && EntityPopulationTracker.getCount(entity.getLevel(), category) >= populationCap) {
+        event.setResult(Event.Result.DENY);
+        LobbyStats.increment(LobbyStats.Counter.SPAWNS_CAPPED);
+      }
     }
-  }
-
-  private static void handleSpawnEventLobby(LivingSpawnEvent event) {
-    if (Boolean.TRUE.equals(COMMON.lobbyDisableMobSpawning.get())) {
-      event.setResult(Event.Result.DENY);
+    if (event.getResult() == Event.Result.DENY) {
+      LobbyStats.incrementDeniedSpawns(route.getRole());
     }
   }
 
-  private static void handleSpawnEventMining(LevelAccessor level, Entity entity,
-      LivingSpawnEvent event) {
+  /**
+   * Chest minecarts are no living entities and never reach the spawn events, they are filtered by
+   * the cancelled joins of {@link EntityTypeDecisionCache} instead.
+   */
+  private static void handleSpawnEventMining(LevelAccessor level, LivingSpawnEvent event) {
     // Removing spawners as soon they try to spawn something.
-    if (COMMON.miningRemoveSpawner.get() && event instanceof LivingSpawnEvent.CheckSpawn checkSpawn
+    if (LobbyConfigSnapshot.get().miningRemoveSpawner
+        && event instanceof LivingSpawnEvent.CheckSpawn checkSpawn
         && checkSpawn.getSpawner() != null) {
       BaseSpawner spawner = checkSpawn.getSpawner();
       BlockPos blockPos = spawner.getSpawnerBlockEntity().getBlockPos();
@@ -242,32 +232,16 @@ public class DimensionManagerEventHandler {
         level.removeBlock(blockPos, true);
       }
     }
-
-    // Allow/deny bat spawning for better cave experience
-    if (entity instanceof Bat) {
-      if (Boolean.TRUE.equals(COMMON.miningDisableBatSpawning.get())) {
-        event.setResult(Event.Result.DENY);
-      }
-      return;
-    }
-
-    // Allow/deny Minecart Chest spawning
-    if (entity instanceof MinecartChest) {
-      if (Boolean.TRUE.equals(COMMON.miningDisableMinecartChestSpawning.get())) {
-        event.setResult(Event.Result.DENY);
-      }
-      return;
-    }
-
-    if (Boolean.TRUE.equals(COMMON.miningDisableMobSpawning.get())) {
-      event.setResult(Event.Result.DENY);
-    }
   }
 
-  private static void handleSpawnEventVoid(LivingSpawnEvent event) {
-    if (Boolean.TRUE.equals(COMMON.voidDisableMobSpawning.get())) {
-      event.setResult(Event.Result.DENY);
+  private static MobSpawnType getSpawnType(LivingSpawnEvent event) {
+    if (event instanceof LivingSpawnEvent.CheckSpawn checkSpawn) {
+      return checkSpawn.getSpawnReason();
+    }
+    if (event instanceof LivingSpawnEvent.SpecialSpawn specialSpawn) {
+      return specialSpawn.getSpawnReason();
     }
+    return null;
   }
 
 }
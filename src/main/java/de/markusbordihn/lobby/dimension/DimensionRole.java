@@ -0,0 +1,55 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import net.minecraft.world.level.GameType;
+
+public enum DimensionRole {
+  DEFAULT("Default", GameType.SURVIVAL),
+  FISHING("Fishing", GameType.ADVENTURE),
+  GAMING("Gaming", GameType.ADVENTURE),
+  HUB("Hub", GameType.ADVENTURE),
+  LOBBY("Lobby", GameType.ADVENTURE),
+  MINING("Mining", GameType.SURVIVAL),
+  VOID("Void", GameType.ADVENTURE);
+
+  private final String displayName;
+  private final GameType teleportGameType;
+
+  DimensionRole(String displayName, GameType teleportGameType) {
+    this.displayName = displayName;
+    this.teleportGameType = teleportGameType;
+  }
+
+  public String getDisplayName() {
+    return this.displayName;
+  }
+
+  /**
+   * Game type for normal players after a teleport into the dimension, builders get creative mode.
+   */
+  public GameType getTeleportGameType() {
+    return this.teleportGameType;
+  }
+
+  public boolean isBuiltIn() {
+    return this != HUB;
+  }
+}
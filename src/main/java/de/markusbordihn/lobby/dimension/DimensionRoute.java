@@ -0,0 +1,144 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.GameType;
+
+import de.markusbordihn.lobby.player.BuilderIndex;
+
+public final class DimensionRoute {
+
+  private final ManagedDimension managedDimension;
+  private final DimensionRole role;
+  private final ServerLevel level;
+  private final GameType gameType;
+  private final BuilderIndex builderIndex;
+  private final Map<UUID, Boolean> builderCache = new ConcurrentHashMap<>();
+  private final boolean disableMobSpawning;
+  private final boolean resetGameTypeOnLeave;
+  private final EntityTypeDecisionCache entityJoinDecisions;
+  private final SpawnPolicy spawnPolicy;
+  private final int[] populationCaps;
+
+  public DimensionRoute(ManagedDimension managedDimension, ServerLevel level, GameType gameType,
+      BuilderIndex builderIndex, boolean disableMobSpawning, boolean resetGameTypeOnLeave,
+      EntityTypeDecisionCache entityJoinDecisions, SpawnPolicy spawnPolicy,
+      int[] populationCaps) {
+    this.managedDimension = managedDimension;
+    this.role = managedDimension.getRole();
+    this.level = level;
+    this.gameType = gameType;
+    this.builderIndex = builderIndex;
+    this.disableMobSpawning = disableMobSpawning;
+    this.resetGameTypeOnLeave = resetGameTypeOnLeave;
+    this.entityJoinDecisions = entityJoinDecisions;
+    this.spawnPolicy = spawnPolicy;
+    this.populationCaps = populationCaps;
+  }
+
+  public ManagedDimension getManagedDimension() {
+    return this.managedDimension;
+  }
+
+  public DimensionRole getRole() {
+    return this.role;
+  }
+
+  public ServerLevel getLevel() {
+    return this.level;
+  }
+
+  /**
+   * Game type for normal players entering this dimension, null will keep the current game type.
+   */
+  public GameType getGameType() {
+    return this.gameType;
+  }
+
+  public boolean hasBuilders() {
+    return !this.builderIndex.isEmpty();
+  }
+
+  public boolean isBuilder(Player player) {
+    if (this.builderIndex.isEmpty()) {
+      return false;
+    }
+
+    // Resolve builder status only once per player and route.
+    UUID uuid = player.getUUID();
+    Boolean isBuilder = this.builderCache.get(uuid);
+    if (isBuilder == null) {
+      isBuilder = this.builderIndex.contains(uuid, player.getGameProfile().getName());
+      this.builderCache.put(uuid, isBuilder);
+    }
+    return isBuilder;
+  }
+
+  public void forgetBuilder(UUID uuid) {
+    this.builderCache.remove(uuid);
+  }
+
+  public boolean isMobSpawningDisabled() {
+    return this.disableMobSpawning;
+  }
+
+  public boolean shouldResetGameTypeOnLeave() {
+    return this.resetGameTypeOnLeave;
+  }
+
+  /**
+   * Join decisions per entity type, null if entities are not filtered for this dimension.
+   */
+  public EntityTypeDecisionCache getEntityJoinDecisions() {
+    return this.entityJoinDecisions;
+  }
+
+  /**
+   * Spawn rules for this dimension, null if there are no rules.
+   */
+  public SpawnPolicy getSpawnPolicy() {
+    return this.spawnPolicy;
+  }
+
+  public boolean hasPopulationCaps() {
+    return this.populationCaps != null;
+  }
+
+  /**
+   * Max. number of entities of the given category, -1 if the category is not capped.
+   */
+  public int getPopulationCap(MobCategory category) {
+    return this.populationCaps != null ? this.populationCaps[category.ordinal()] : -1;
+  }
+
+  @Override
+  public String toString() {
+    return "DimensionRoute [id=" + this.managedDimension.getId() + ", role=" + this.role
+        + ", level=" + this.level + ", gameType=" + this.gameType + ", builders="
+        + this.builderIndex.size() + ", disableMobSpawning=" + this.disableMobSpawning + "]";
+  }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.MobCategory;
+import net.minecraft.world.level.Level;
+
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
+import net.minecraftforge.event.entity.EntityLeaveLevelEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.Constants;
+
+/**
+ * Counts the entities per category in the managed dimensions with the join and leave events, so
+ * that the population caps could be checked without scanning the level.
+ */
+@EventBusSubscriber
+public class EntityPopulationTracker {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  private static final MobCategory[] CATEGORIES = MobCategory.values();
+
+  private static final Map<ResourceKey<Level>, int[]> populationMap = new IdentityHashMap<>();
+
+  protected EntityPopulationTracker() {}
+
+  @SubscribeEvent
+  public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    populationMap.clear();
+  }
+
+  @SubscribeEvent
+  public static void handleLevelUnloadEvent(LevelEvent.Unload event) {
+    if (event.getLevel() instanceof Level level && !level.isClientSide()) {
+      populationMap.remove(level.dimension());
+    }
+  }
+
+  @SubscribeEvent(priority = EventPriority.LOWEST)
+  public static void handleEntityJoinLevelEvent(EntityJoinLevelEvent event) {
+    Level level = event.getLevel();
+    if (level.isClientSide() || DimensionManager.getRoute(level) == null) {
+      return;
+    }
+    getPopulation(level)[getCategoryIndex(event.getEntity())]++;
+  }
+
+  @SubscribeEvent
+  public static void handleEntityLeaveLevelEvent(EntityLeaveLevelEvent event) {
+    Level level = event.getLevel();
+    if (level.isClientSide()) {
+      return;
+    }
+    int[] population = populationMap.get(level.dimension());
+    int categoryIndex = getCategoryIndex(event.getEntity());
+    if (population != null && population[categoryIndex] > 0) {
+      population[categoryIndex]--;
+    }
+  }
+
+  public static int getCount(Level level, MobCategory category) {
+    int[] population = populationMap.get(level.dimension());
+    return population != null ? population[category.ordinal()] : 0;
+  }
+
+  /**
+   * @return the entity count per category, indexed by the category ordinal.
+   */
+  public static int[] getCounts(Level level) {
+    int[] population = populationMap.get(level.dimension());
+    return population != null ? population.clone() : new int[CATEGORIES.length];
+  }
+
+  /**
+   * Parses the caps of the given dimension id from entries like "gaming monster 50".
+   *
+   * @return the caps indexed by the category ordinal with -1 for no cap, or null without caps.
+   */
+  public static int[] parseCaps(String id, List<String> capList) {
+    int[] caps = null;
+    for (String cap : capList) {
+      String[] parts = cap.trim().split("\\s+");
+      if (parts.length != 3 || !parts[0].equals(id)) {
+        continue;
+      }
+      try {
+        MobCategory category = MobCategory.valueOf(parts[1].toUpperCase(Locale.ROOT));
+        int maxCount = Integer.parseInt(parts[2]);
+        if (caps == null) {
+          caps = new int[CATEGORIES.length];
+          Arrays.fill(caps, -1);
+        }
+        caps[category.ordinal()] = Math.max(0, maxCount);
+      } catch (IllegalArgumentException exception) {
+        log.error("{} Ignore invalid population cap \"{}\": {}",
+            Constants.LOG_DIMENSION_MANAGER_PREFIX, cap, exception.getMessage());
+      }
+    }
+    return caps;
+  }
+
+  private static int[] getPopulation(Level level) {
+    return populationMap.computeIfAbsent(level.dimension(), key -> new int[CATEGORIES.length]);
+  }
+
+  private static int getCategoryIndex(Entity entity) {
+    return entity.getType().getCategory().ordinal();
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.vehicle.MinecartChest;
+
+/**
+ * Caches the join decision per entity type, so that the class checks are only done once for the
+ * first entity of each type. The decision itself is fixed by the config flags of the owning route.
+ * Only chest minecarts are denied here, mobs are controlled by the spawn events and the
+ * {@link SpawnPolicy} of the route, so that they are not removed when loaded from disk or when
+ * following a player through a dimension change.
+ */
+public final class EntityTypeDecisionCache {
+
+  public enum Decision {
+    ALLOW, DENY
+  }
+
+  private final Decision minecartChestDecision;
+
+  // Copy on write, the map is never modified after it was published.
+  private volatile Map<EntityType<?>, Decision> decisions = new IdentityHashMap<>();
+
+  public EntityTypeDecisionCache(boolean disableMinecartChestSpawning,
+      boolean disableMobSpawning) {
+    this.minecartChestDecision =
+        disableMinecartChestSpawning || disableMobSpawning ? Decision.DENY : Decision.ALLOW;
+  }
+
+  public Decision getDecision(Entity entity) {
+    EntityType<?> entityType = entity.getType();
+    Decision decision = this.decisions.get(entityType);
+    if (decision == null) {
+      decision = classify(entity);
+      addDecision(entityType, decision);
+    }
+    return decision;
+  }
+
+  public int size() {
+    return this.decisions.size();
+  }
+
+  private Decision classify(Entity entity) {
+    return entity instanceof MinecartChest ? this.minecartChestDecision : Decision.ALLOW;
+  }
+
+  private synchronized void addDecision(EntityType<?> entityType, Decision decision) {
+    if (this.decisions.containsKey(entityType)) {
+      return;
+    }
+    Map<EntityType<?>, Decision> updatedDecisions = new IdentityHashMap<>(this.decisions);
+    updatedDecisions.put(entityType, decision);
+    this.decisions = updatedDecisions;
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot.DimensionSettings;
+
+/**
+ * A dimension managed by this mod, either one of the built-in dimensions or an additional hub.
+ */
+public final class ManagedDimension {
+
+  private final String id;
+  private final DimensionRole role;
+  private final DimensionSettings settings;
+  private final ResourceKey<Level> dimensionKey;
+
+  ManagedDimension(String id, DimensionRole role, DimensionSettings settings) {
+    this.id = id;
+    this.role = role;
+    this.settings = settings;
+    ResourceLocation location = ResourceLocation.tryParse(settings.dimension);
+    this.dimensionKey =
+        location != null ? ResourceKey.create(Registry.DIMENSION_REGISTRY, location) : null;
+  }
+
+  public String getId() {
+    return this.id;
+  }
+
+  public DimensionRole getRole() {
+    return this.role;
+  }
+
+  public DimensionSettings getSettings() {
+    return this.settings;
+  }
+
+  public boolean isEnabled() {
+    return this.settings.enabled;
+  }
+
+  public String getDimension() {
+    return this.settings.dimension;
+  }
+
+  /**
+   * @return the dimension key or null, if the configured dimension is not a valid location.
+   */
+  public ResourceKey<Level> getDimensionKey() {
+    return this.dimensionKey;
+  }
+
+  public String getDimensionName() {
+    return this.settings.dimensionName;
+  }
+
+  public String getCommandName() {
+    return this.settings.commandName;
+  }
+
+  @Override
+  public String toString() {
+    return "ManagedDimension [id=" + this.id + ", role=" + this.role + ", dimension="
+        + this.settings.dimension + ", enabled=" + this.settings.enabled + "]";
+  }
+}
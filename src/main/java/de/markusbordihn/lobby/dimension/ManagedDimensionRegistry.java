@@ -0,0 +1,123 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot.DimensionSettings;
+
+/**
+ * Immutable registry of all managed dimensions for a config snapshot: the built-in dimensions
+ * followed by the additional hubs. It is rebuilt whenever a new config snapshot is published.
+ */
+public final class ManagedDimensionRegistry {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  private static volatile ManagedDimensionRegistry current = null;
+
+  private final LobbyConfigSnapshot config;
+  private final Map<String, ManagedDimension> dimensionsById = new LinkedHashMap<>();
+  private final Map<String, ManagedDimension> dimensionsByLocation = new HashMap<>();
+  private final Map<DimensionRole, ManagedDimension> builtInDimensions =
+      new EnumMap<>(DimensionRole.class);
+
+  private ManagedDimensionRegistry(LobbyConfigSnapshot config) {
+    this.config = config;
+
+    // Order matters, if several managed dimensions share the same dimension the first one wins.
+    register(DimensionRole.FISHING, config.fishingSettings);
+    register(DimensionRole.GAMING, config.gamingSettings);
+    register(DimensionRole.LOBBY, config.lobbySettings);
+    register(DimensionRole.MINING, config.miningSettings);
+    register(DimensionRole.VOID, config.voidSettings);
+    register(DimensionRole.DEFAULT, config.defaultSettings);
+    for (Map.Entry<String, DimensionSettings> hub : config.hubSettings.entrySet()) {
+      if (this.dimensionsById.containsKey(hub.getKey())) {
+        log.error("{} Hub {} is using the id of a built-in dimension and will be ignored!",
+            Constants.LOG_DIMENSION_MANAGER_PREFIX, hub.getKey());
+        continue;
+      }
+      register(hub.getKey(), DimensionRole.HUB, hub.getValue());
+    }
+  }
+
+  public static ManagedDimensionRegistry get() {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    ManagedDimensionRegistry registry = current;
+    if (registry == null || registry.config != config) {
+      registry = rebuild(config);
+    }
+    return registry;
+  }
+
+  private static synchronized ManagedDimensionRegistry rebuild(LobbyConfigSnapshot config) {
+    ManagedDimensionRegistry registry = current;
+    if (registry == null || registry.config != config) {
+      registry = new ManagedDimensionRegistry(config);
+      current = registry;
+    }
+    return registry;
+  }
+
+  private void register(DimensionRole role, DimensionSettings settings) {
+    register(role.name().toLowerCase(Locale.ROOT), role, settings);
+  }
+
+  private void register(String id, DimensionRole role, DimensionSettings settings) {
+    ManagedDimension managedDimension = new ManagedDimension(id, role, settings);
+    this.dimensionsById.put(id, managedDimension);
+    this.dimensionsByLocation.putIfAbsent(settings.dimension, managedDimension);
+    if (role.isBuiltIn()) {
+      this.builtInDimensions.put(role, managedDimension);
+    }
+  }
+
+  public ManagedDimension getById(String id) {
+    return this.dimensionsById.get(id);
+  }
+
+  public ManagedDimension getByDimension(String dimensionLocation) {
+    return this.dimensionsByLocation.get(dimensionLocation);
+  }
+
+  public ManagedDimension getBuiltIn(DimensionRole role) {
+    return this.builtInDimensions.get(role);
+  }
+
+  public Collection<ManagedDimension> getAll() {
+    return Collections.unmodifiableCollection(this.dimensionsById.values());
+  }
+
+  public LobbyConfigSnapshot getConfig() {
+    return this.config;
+  }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BarrelBlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.ChestBlockEntity;
+import net.minecraft.world.level.block.entity.RandomizableContainerBlockEntity;
+import net.minecraft.world.level.block.entity.SpawnerBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.data.ChunkBitmap;
+import de.markusbordihn.lobby.data.LobbyData;
+import de.markusbordihn.lobby.stats.LobbyStats;
+
+/**
+ * Removes spawners and loot chests from loaded chunks of the mining dimension. Chunk loads only
+ * queue the chunk position, the actual scrubbing is done with a fixed budget per server tick.
+ * Scrubbed chunks are remembered in the {@link LobbyData} so they are skipped after a restart.
+ */
+@EventBusSubscriber
+public class MiningChunkScrubber {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  private static final LongArrayFIFOQueue chunkQueue = new LongArrayFIFOQueue();
+  private static final LongSet queuedChunks = new LongOpenHashSet();
+  private static final List<BlockPos> removeBlockEntities = new ArrayList<>();
+
+  private static ServerLevel level = null;
+  private static LobbyData lobbyData = null;
+
+  protected MiningChunkScrubber() {}
+
+  @SubscribeEvent
+  public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    reset(null);
+  }
+
+  @SubscribeEvent
+  public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
+    if (event.phase == TickEvent.Phase.END || chunkQueue.isEmpty()) {
+      return;
+    }
+    long startTimer = LobbyStats.startTimer();
+    scrubQueuedChunks(LobbyConfigSnapshot.get());
+    LobbyStats.stopTimer(LobbyStats.Timer.CHUNK_SCRUBBER, startTimer);
+  }
+
+  public static synchronized void enqueue(ServerLevel serverLevel, ChunkPos chunkPos) {
+    if (level != serverLevel) {
+      reset(serverLevel);
+    }
+    long chunkKey = chunkPos.toLong();
+    if ((lobbyData == null || !lobbyData.getScrubbedChunks().contains(chunkKey))
+        && queuedChunks.add(chunkKey)) {
+      chunkQueue.enqueue(chunkKey);
+    }
+  }
+
+  public static synchronized int getQueueSize() {
+    return chunkQueue.size();
+  }
+
+  public static synchronized int getScrubbedChunks() {
+    return lobbyData != null ? lobbyData.getScrubbedChunks().size() : 0;
+  }
+
+  public static synchronized int resetScrubbedChunks() {
+    LobbyData data = lobbyData != null ? lobbyData : LobbyData.get();
+    if (data == null) {
+      return 0;
+    }
+    int scrubbedChunks = data.getScrubbedChunks().size();
+    data.resetScrubbedChunks();
+    log.info("{} Reset {} scrubbed mining chunks, they will be scrubbed again on their next load.",
+        Constants.LOG_DIMENSION_MANAGER_PREFIX, scrubbedChunks);
+    return scrubbedChunks;
+  }
+
+  private static synchronized void scrubQueuedChunks(LobbyConfigSnapshot config) {
+    if (level == null) {
+      return;
+    }
+
+    // Saved data is only available once the server is running, so it is bound on the first tick.
+    if (lobbyData == null) {
+      lobbyData = LobbyData.get();
+      if (lobbyData == null) {
+        return;
+      }
+    }
+    ChunkBitmap scrubbedChunks = lobbyData.getScrubbedChunks();
+    boolean changed = false;
+    int budget = config.miningScrubChunksPerTick;
+    while (budget-- > 0 && !chunkQueue.isEmpty()) {
+      long chunkKey = chunkQueue.dequeueLong();
+      queuedChunks.remove(chunkKey);
+      if (scrubbedChunks.contains(chunkKey)) {
+        budget++;
+        continue;
+      }
+
+      // Skip chunks which are no longer loaded, they will be queued again on their next load.
+      LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey),
+          ChunkPos.getZ(chunkKey));
+      if (chunk != null) {
+        scrubChunk(chunk, config);
+        changed |= scrubbedChunks.add(chunkKey);
+        LobbyStats.increment(LobbyStats.Counter.CHUNKS_SCRUBBED);
+      }
+    }
+    if (changed) {
+      lobbyData.setDirty(LobbyData.Section.SCRUBBED_CHUNKS);
+    }
+  }
+
+  private static void scrubChunk(LevelChunk chunk, LobbyConfigSnapshot config) {
+    Map<BlockPos, BlockEntity> blockEntities = chunk.getBlockEntities();
+    if (blockEntities.isEmpty()) {
+      return;
+    }
+    for (Map.Entry<BlockPos, BlockEntity> entry : blockEntities.entrySet()) {
+      BlockEntity blockEntity = entry.getValue();
+
+      // Remove spawners.
+      if (config.miningRemoveSpawner && blockEntity instanceof SpawnerBlockEntity) {
+        log.debug("{} Removing spawner block entity {} at {}",
+            Constants.LOG_DIMENSION_MANAGER_PREFIX, blockEntity, entry.getKey());
+        removeBlockEntities.add(entry.getKey());
+      }
+
+      // Remove loot chests to avoid easy getting of items in the mining dimension.
+      else if (config.miningRemoveLootChest
+          && (blockEntity instanceof ChestBlockEntity || blockEntity instanceof BarrelBlockEntity)
+          && ((RandomizableContainerBlockEntity) blockEntity).lootTable != null) {
+        log.debug("{} Removing loot chest block entity {} at {}",
+            Constants.LOG_DIMENSION_MANAGER_PREFIX, blockEntity, entry.getKey());
+        removeBlockEntities.add(entry.getKey());
+      }
+    }
+
+    // Removing block entities outside of the iteration to avoid concurrent modifications.
+    if (!removeBlockEntities.isEmpty()) {
+      for (BlockPos blockPos : removeBlockEntities) {
+        chunk.removeBlockEntity(blockPos);
+      }
+
+      // removeBlockEntity does not mark the chunk as unsaved, which would lose the removal.
+      chunk.setUnsaved(true);
+      LobbyStats.add(LobbyStats.Counter.BLOCK_ENTITIES_SCRUBBED, removeBlockEntities.size());
+      removeBlockEntities.clear();
+    }
+  }
+
+  private static synchronized void reset(ServerLevel serverLevel) {
+    level = serverLevel;
+    chunkQueue.clear();
+    queuedChunks.clear();
+    lobbyData = null;
+  }
+
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.dimension;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.ResourceLocationException;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.MobSpawnType;
+
+import de.markusbordihn.lobby.Constants;
+
+/**
+ * Spawn rules of a single dimension, like "fishing allow #lobby:fish natural 0 40 0 60 64 30".
+ * Each rule has an entity type, entity type tag or "*", an optional spawn type or "*" and an
+ * optional region. The first matching rule decides.
+ *
+ * <p>The rules are compiled per entity type and spawn type into a short list of candidates, which
+ * ends with the first rule without region. Spawns without region rules are decided with a single
+ * lookup.
+ */
+public final class SpawnPolicy {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  public enum Decision {
+    ALLOW, DENY, DEFAULT
+  }
+
+  private static final MobSpawnType[] SPAWN_TYPES = MobSpawnType.values();
+  private static final Rule[] NO_RULES = new Rule[0];
+
+  private final Rule[] rules;
+
+  // Copy on write, the map is never modified after it was published.
+  private volatile Map<EntityType<?>, Rule[][]> decisionTable = new IdentityHashMap<>();
+
+  private SpawnPolicy(List<Rule> rules) {
+    this.rules = rules.toArray(NO_RULES);
+  }
+
+  /**
+   * Compiles the rules of the given dimension id from the rule list.
+   *
+   * @return the spawn policy or null, if there are no rules for the dimension.
+   */
+  public static SpawnPolicy compile(String id, List<String> ruleList, List<String> builtInRules) {
+    List<Rule> rules = new ArrayList<>();
+    for (String rule : ruleList) {
+      String[] parts = rule.trim().split("\\s+");
+      if (parts.length >= 3 && parts[0].equals(id)) {
+        addRule(rules, rule, parts, 1);
+      }
+    }
+    for (String rule : builtInRules) {
+      addRule(rules, rule, rule.trim().split("\\s+"), 0);
+    }
+    return rules.isEmpty() ? null : new SpawnPolicy(rules);
+  }
+
+  public Decision getDecision(Entity entity, MobSpawnType spawnType) {
+    Rule[][] candidatesBySpawnType = this.decisionTable.get(entity.getType());
+    if (candidatesBySpawnType == null) {
+      candidatesBySpawnType = compile(entity.getType());
+      addCandidates(entity.getType(), candidatesBySpawnType);
+    }
+    Rule[] candidates =
+        candidatesBySpawnType[spawnType == null ? SPAWN_TYPES.length : spawnType.ordinal()];
+    for (Rule rule : candidates) {
+      if (rule.containsPosition(entity.getX(), entity.getY(), entity.getZ())) {
+        return rule.decision;
+      }
+    }
+    return Decision.DEFAULT;
+  }
+
+  /**
+   * Drops the compiled decisions, for example after the entity type tags were reloaded.
+   */
+  public synchronized void clear() {
+    this.decisionTable = new IdentityHashMap<>();
+  }
+
+  public int size() {
+    return this.rules.length;
+  }
+
+  private Rule[][] compile(EntityType<?> entityType) {
+    Rule[][] candidatesBySpawnType = new Rule[SPAWN_TYPES.length + 1][];
+    for (int i = 0; i <= SPAWN_TYPES.length; i++) {
+      MobSpawnType spawnType = i < SPAWN_TYPES.length ? SPAWN_TYPES[i] : null;
+      List<Rule> candidates = new ArrayList<>();
+      for (Rule rule : this.rules) {
+        if (rule.matches(entityType, spawnType)) {
+          candidates.add(rule);
+          if (!rule.hasRegion) {
+            break;
+          }
+        }
+      }
+      candidatesBySpawnType[i] = candidates.isEmpty() ? NO_RULES : candidates.toArray(NO_RULES);
+    }
+    return candidatesBySpawnType;
+  }
+
+  private synchronized void addCandidates(EntityType<?> entityType,
+      Rule[][] candidatesBySpawnType) {
+    if (this.decisionTable.containsKey(entityType)) {
+      return;
+    }
+    Map<EntityType<?>, Rule[][]> updatedDecisionTable = new IdentityHashMap<>(this.decisionTable);
+    updatedDecisionTable.put(entityType, candidatesBySpawnType);
+    this.decisionTable = updatedDecisionTable;
+  }
+
+  private static void addRule(List<Rule> rules, String rule, String[] parts, int offset) {
+    try {
+      rules.add(Rule.parse(parts, offset));
+    } catch (IllegalArgumentException | ResourceLocationException exception) {
+      log.error("{} Ignore invalid spawn rule \"{}\": {}", Constants.LOG_DIMENSION_MANAGER_PREFIX,
+          rule, exception.getMessage());
+    }
+  }
+
+  private static final class Rule {
+
+    private final Decision decision;
+    private final ResourceLocation entityTypeId;
+    private final TagKey<EntityType<?>> entityTypeTag;
+    private final MobSpawnType spawnType;
+    private final boolean hasRegion;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    private Rule(Decision decision, ResourceLocation entityTypeId,
+        TagKey<EntityType<?>> entityTypeTag, MobSpawnType spawnType, int[] region) {
+      this.decision = decision;
+      this.entityTypeId = entityTypeId;
+      this.entityTypeTag = entityTypeTag;
+      this.spawnType = spawnType;
+      this.hasRegion = region != null;
+      this.minX = this.hasRegion ? Math.min(region[0], region[3]) : 0;
+      this.minY = this.hasRegion ? Math.min(region[1], region[4]) : 0;
+      this.minZ = this.hasRegion ? Math.min(region[2], region[5]) : 0;
+      this.maxX = this.hasRegion ? Math.max(region[0], region[3]) : 0;
+      this.maxY = this.hasRegion ? Math.max(region[1], region[4]) : 0;
+      this.maxZ = this.hasRegion ? Math.max(region[2], region[5]) : 0;
+    }
+
+    private static Rule parse(String[] parts, int offset) {
+      int length = parts.length - offset;
+      if (length != 2 && length != 3 && length != 9) {
+        throw new IllegalArgumentException(
+            "Expected <allow|deny> <entity|#tag|*> [spawn type|*] [x1 y1 z1 x2 y2 z2]");
+      }
+      Decision decision = Decision.valueOf(parts[offset].toUpperCase(Locale.ROOT));
+      if (decision == Decision.DEFAULT) {
+        throw new IllegalArgumentException("Unknown decision " + parts[offset]);
+      }
+      String entity = parts[offset + 1];
+      ResourceLocation entityTypeId = null;
+      TagKey<EntityType<?>> entityTypeTag = null;
+      if (entity.startsWith("#")) {
+        entityTypeTag =
+            TagKey.create(Registry.ENTITY_TYPE_REGISTRY, new ResourceLocation(entity.substring(1)));
+      } else if (!entity.equals("*")) {
+        entityTypeId = new ResourceLocation(entity);
+      }
+      MobSpawnType spawnType = length >= 3 && !parts[offset + 2].equals("*")
+          ? MobSpawnType.valueOf(parts[offset + 2].toUpperCase(Locale.ROOT))
+          : null;
+      int[] region = null;
+      if (length == 9) {
+        region = new int[6];
+        for (int i = 0; i < 6; i++) {
+          region[i] = Integer.parseInt(parts[offset + 3 + i]);
+        }
+      }
+      return new Rule(decision, entityTypeId, entityTypeTag, spawnType, region);
+    }
+
+    private boolean matches(EntityType<?> entityType, MobSpawnType spawnType) {
+      if (this.spawnType != null && this.spawnType != spawnType) {
+        return false;
+      }
+      if (this.entityTypeTag != null) {
+        return entityType.is(this.entityTypeTag);
+      }
+      return this.entityTypeId == null || this.entityTypeId.equals(EntityType.getKey(entityType));
+    }
+
+    private boolean containsPosition(double x, double y, double z) {
+      return !this.hasRegion || (x >= this.minX && x < this.maxX + 1 && y >= this.minY
+          && y < this.maxY + 1 && z >= this.minZ && z < this.maxZ + 1);
+    }
+  }
+}
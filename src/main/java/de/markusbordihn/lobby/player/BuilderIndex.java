@@ -0,0 +1,95 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.player;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable builder lookup for a single dimension. Entries of the builder list are matched by
+ * UUID, if they are a valid UUID, or by the lower-case player name as fallback.
+ */
+public final class BuilderIndex {
+
+  public static final BuilderIndex EMPTY = new BuilderIndex(Set.of(), Set.of());
+
+  private final Set<UUID> builderUUIDs;
+  private final Set<String> builderNames;
+
+  private BuilderIndex(Set<UUID> builderUUIDs, Set<String> builderNames) {
+    this.builderUUIDs = builderUUIDs;
+    this.builderNames = builderNames;
+  }
+
+  public static BuilderIndex of(Collection<String> builderList) {
+    if (builderList == null || builderList.isEmpty()) {
+      return EMPTY;
+    }
+    Set<UUID> builderUUIDs = new HashSet<>();
+    Set<String> builderNames = new HashSet<>();
+    for (String builder : builderList) {
+      if (builder == null || builder.isBlank()) {
+        continue;
+      }
+      String entry = builder.trim();
+      UUID builderUUID = parseUUID(entry);
+      if (builderUUID != null) {
+        builderUUIDs.add(builderUUID);
+      } else {
+        builderNames.add(entry.toLowerCase(Locale.ROOT));
+      }
+    }
+    if (builderUUIDs.isEmpty() && builderNames.isEmpty()) {
+      return EMPTY;
+    }
+    return new BuilderIndex(Set.copyOf(builderUUIDs), Set.copyOf(builderNames));
+  }
+
+  public boolean isEmpty() {
+    return this.builderUUIDs.isEmpty() && this.builderNames.isEmpty();
+  }
+
+  public int size() {
+    return this.builderUUIDs.size() + this.builderNames.size();
+  }
+
+  public boolean contains(UUID uuid, String name) {
+    if (uuid != null && this.builderUUIDs.contains(uuid)) {
+      return true;
+    }
+    return name != null && !this.builderNames.isEmpty()
+        && this.builderNames.contains(name.toLowerCase(Locale.ROOT));
+  }
+
+  private static UUID parseUUID(String value) {
+    // Only consider the canonical form with dashes, to avoid matching hex-like player names.
+    if (value.length() != 36 || value.charAt(8) != '-') {
+      return null;
+    }
+    try {
+      return UUID.fromString(value);
+    } catch (IllegalArgumentException exception) {
+      return null;
+    }
+  }
+}
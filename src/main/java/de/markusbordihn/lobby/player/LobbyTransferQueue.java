@@ -0,0 +1,153 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.player;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.server.ServerLifecycleHooks;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.stats.LobbyStats;
+
+/**
+ * First in, first out queue for the automatic transfers to the lobby, which limits the number of
+ * transfers per tick and slows down further, if the average tick time is above the target.
+ */
+@EventBusSubscriber
+public class LobbyTransferQueue {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  // Transfers are never stalled completely, even if the server is overloaded.
+  private static final int MIN_TRANSFER_INTERVAL_TICKS = 20;
+  private static final int POSITION_MESSAGE_INTERVAL_TICKS = 5 * 20;
+
+  private static Deque<UUID> transferQueue = new ArrayDeque<>();
+  private static int ticksSinceTransfer = 0;
+  private static int ticker = 0;
+
+  protected LobbyTransferQueue() {}
+
+  @SubscribeEvent
+  public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    transferQueue = new ArrayDeque<>();
+    ticksSinceTransfer = 0;
+    ticker = 0;
+  }
+
+  @SubscribeEvent
+  public static void handlePlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event) {
+    if (!transferQueue.isEmpty()) {
+      transferQueue.remove(event.getEntity().getUUID());
+    }
+  }
+
+  @SubscribeEvent
+  public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
+    if (event.phase == TickEvent.Phase.START || transferQueue.isEmpty()) {
+      return;
+    }
+    MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+    if (server == null) {
+      return;
+    }
+    ticksSinceTransfer++;
+    int transfers = getTransfersForTick(server);
+    while (transfers > 0 && !transferQueue.isEmpty()) {
+      ServerPlayer player = server.getPlayerList().getPlayer(transferQueue.poll());
+      if (player != null && !player.isRemoved()) {
+        if (DimensionManager.teleportToLobby(player)) {
+          PlayerManager.markTransferredToLobby(player);
+        }
+        ticksSinceTransfer = 0;
+        transfers--;
+      }
+    }
+
+    // Keep waiting players informed about their position in the queue.
+    if (++ticker >= POSITION_MESSAGE_INTERVAL_TICKS) {
+      ticker = 0;
+      int position = 0;
+      for (UUID uuid : transferQueue) {
+        ServerPlayer player = server.getPlayerList().getPlayer(uuid);
+        position++;
+        if (player != null) {
+          sendPosition(player, position);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the player to the end of the queue, if not already queued.
+   */
+  public static void enqueue(ServerPlayer player) {
+    if (transferQueue.contains(player.getUUID())) {
+      return;
+    }
+    transferQueue.add(player.getUUID());
+    LobbyStats.increment(LobbyStats.Counter.TRANSFERS_QUEUED);
+    if (transferQueue.size() > LobbyConfigSnapshot.get().generalTransferMaxPerTick) {
+      log.debug("{} Queued transfer of {} to lobby at position {}",
+          Constants.LOG_PLAYER_MANAGER_PREFIX, player, transferQueue.size());
+      sendPosition(player, transferQueue.size());
+    }
+  }
+
+  public static int getQueueSize() {
+    return transferQueue.size();
+  }
+
+  private static int getTransfersForTick(MinecraftServer server) {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    double averageTickTime = server.getAverageTickTime();
+    int transfers = config.generalTransferMaxPerTick;
+
+    // Reduce the transfers proportional to the overload above the target tick time.
+    if (averageTickTime > config.generalTransferTargetTickTime) {
+      transfers = (int) (transfers * config.generalTransferTargetTickTime / averageTickTime);
+    }
+    if (transfers <= 0 && ticksSinceTransfer >= MIN_TRANSFER_INTERVAL_TICKS) {
+      transfers = 1;
+    }
+    return transfers;
+  }
+
+  private static void sendPosition(ServerPlayer player, int position) {
+    player.sendSystemMessage(Component.translatable(
+        Constants.TEXT_PREFIX + "transfer_queue_position", position, transferQueue.size()));
+  }
+}
@@ -19,10 +19,11 @@
 
 package de.markusbordihn.lobby.player;
 
-import java.util.ConcurrentModificationException;
-import java.util.Set;
+import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
@@ -40,27 +41,29 @@ import net.minecraftforge.event.server.ServerAboutToStartEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
-import net.minecraftforge.server.ServerLifecycleHooks;
 
 import de.markusbordihn.lobby.Constants;
-import de.markusbordihn.lobby.config.CommonConfig;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
 import de.markusbordihn.lobby.data.LobbyData;
+import de.markusbordihn.lobby.data.PlayerTeleportStore;
+import de.markusbordihn.lobby.data.UUIDSet;
 import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.stats.LobbyStats;
 
 @EventBusSubscriber
 public class PlayerManager {
 
   private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
 
-  private static final CommonConfig.Config COMMON = CommonConfig.COMMON;
-
-  private static Set<UUID> playerTeleportList = ConcurrentHashMap.newKeySet();
-  private static Set<PlayerValidation> playerValidationList = ConcurrentHashMap.newKeySet();
+  // Players transferred since the server start, only used without the once mode.
+  private static UUIDSet sessionTransfers = new UUIDSet();
+  private static Map<UUID, PlayerValidation> playerValidationMap = new ConcurrentHashMap<>();
+  private static Queue<PlayerValidation> playerValidationDeadlines =
+      new ConcurrentLinkedQueue<>();
 
   private static final int PLAYER_LOGIN_TRACKING_TIMEOUT = 45;
   private static final long PLAYER_LOGIN_VALIDATION_TIMEOUT_MILLI =
       TimeUnit.SECONDS.toMillis(PLAYER_LOGIN_TRACKING_TIMEOUT);
-  private static int ticker = 0;
 
   private static Component lobbyCommand =
       Component.literal("/lobby").setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN)
@@ -70,31 +73,31 @@ public class PlayerManager {
 
   @SubscribeEvent
   public static void onServerAboutToStartEvent(ServerAboutToStartEvent event) {
-    playerTeleportList = ConcurrentHashMap.newKeySet();
-    playerValidationList = ConcurrentHashMap.newKeySet();
+    sessionTransfers = new UUIDSet();
+    playerValidationMap = new ConcurrentHashMap<>();
+    playerValidationDeadlines = new ConcurrentLinkedQueue<>();
   }
 
   @SubscribeEvent
   public static void handleServerStartingEvent(ServerStartingEvent event) {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
     if (automaticTransferIsEnabled()) {
       if (DimensionManager.getLobbyDimension() == null) {
         log.error("{} Unable to find lobby dimension {}, transfer to lobby will be disabled!",
             Constants.LOG_PLAYER_MANAGER_PREFIX, DimensionManager.getLobbyDimensionName());
-      } else if (Boolean.FALSE.equals(COMMON.lobbyEnabled.get())) {
+      } else if (!config.lobbySettings.enabled) {
         log.error("{} lobby dimension is disabled {}, transfer to lobby will be disabled!",
             Constants.LOG_PLAYER_MANAGER_PREFIX, DimensionManager.getLobbyDimensionName());
       } else {
-        if (Boolean.TRUE.equals(COMMON.generalDefaultToLobbyOnce.get())) {
+        if (config.generalDefaultToLobbyOnce) {
           log.info("{} Only teleports the player once to the lobby with their first connect!",
               Constants.LOG_TELEPORT_MANAGER_PREFIX);
-          Set<UUID> storedPlayerTeleportList = LobbyData.get().getPlayerTeleportList();
-          if (!storedPlayerTeleportList.isEmpty()) {
-            log.info(
-                "{} Using stored Player Teleport List to limiting automatic transfers to lobby: {}",
-                Constants.LOG_TELEPORT_MANAGER_PREFIX, storedPlayerTeleportList);
-            playerTeleportList.addAll(storedPlayerTeleportList);
-          }
-        } else if (Boolean.TRUE.equals(COMMON.generalDefaultToLobbyAlways.get())) {
+          PlayerTeleportStore playerTeleports = LobbyData.get().getPlayerTeleports();
+          log.info(
+              "{} Using stored Player Teleport List to limiting automatic transfers to lobby: {}",
+              Constants.LOG_TELEPORT_MANAGER_PREFIX,
+              playerTeleports.getHistoryPlayers() + playerTeleports.getRecentPlayers());
+        } else if (config.generalDefaultToLobbyAlways) {
           log.info("{} Always teleport players to lobby on their server join!",
               Constants.LOG_TELEPORT_MANAGER_PREFIX);
         } else {
@@ -108,148 +111,149 @@ public class PlayerManager {
 
   @SubscribeEvent
   public static void handlePlayerLoggedInEvent(PlayerEvent.PlayerLoggedInEvent event) {
-    if (!automaticTransferIsEnabled()) {
+    if (!automaticTransferIsEnabled() || !(event.getEntity() instanceof ServerPlayer player)) {
       return;
     }
-    String username = event.getEntity().getName().getString();
+    String username = player.getName().getString();
     if (!username.isEmpty()) {
-      ServerPlayer player =
-          ServerLifecycleHooks.getCurrentServer().getPlayerList().getPlayerByName(username);
-
       log.info("{} Player {} {} logged in and will be tracked for {} secs.",
-          Constants.LOG_PLAYER_MANAGER_PREFIX, username, event.getEntity(),
-          PLAYER_LOGIN_VALIDATION_TIMEOUT_MILLI);
+          Constants.LOG_PLAYER_MANAGER_PREFIX, username, player, PLAYER_LOGIN_TRACKING_TIMEOUT);
 
       // Heal player by 1 point, just in case.
       player.heal(1);
 
+      // Returning players refresh their last seen time.
+      if (LobbyConfigSnapshot.get().generalDefaultToLobbyOnce) {
+        LobbyData lobbyData = LobbyData.get();
+        if (lobbyData.hasPlayerTeleport(player.getUUID())) {
+          lobbyData.addPlayerTeleport(player.getUUID());
+        }
+      }
+
       // Send message to player that he will be transferred.
-      if ((COMMON.generalDefaultToLobbyAlways.get()
-          || !playerTeleportList.contains(player.getUUID()))
+      if ((LobbyConfigSnapshot.get().generalDefaultToLobbyAlways
+          || !hasBeenTransferred(player.getUUID()))
           && player.level != DimensionManager.getLobbyDimension()) {
         player.sendSystemMessage(
             Component.translatable(Constants.TEXT_PREFIX + "transfer_to_lobby", lobbyCommand));
       }
-      playerValidationList.add(new PlayerValidation(player));
+      PlayerValidation playerValidation = new PlayerValidation(player);
+      playerValidationMap.put(player.getUUID(), playerValidation);
+      playerValidationDeadlines.add(playerValidation);
     }
   }
 
   @SubscribeEvent
   public static void handlePlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event) {
-    if (!automaticTransferIsEnabled()) {
+    if (playerValidationMap.isEmpty()) {
       return;
     }
-    String username = event.getEntity().getName().getString();
-    if (!username.isEmpty()) {
-      log.debug("{} Player {} logged out.", Constants.LOG_PLAYER_MANAGER_PREFIX, event.getEntity());
-      removePlayer(username);
+    log.debug("{} Player {} logged out.", Constants.LOG_PLAYER_MANAGER_PREFIX, event.getEntity());
+    removePlayer(event.getEntity().getUUID());
+  }
+
+  @SubscribeEvent
+  public static void handlePlayerTickEvent(TickEvent.PlayerTickEvent event) {
+    if (playerValidationMap.isEmpty() || event.phase == TickEvent.Phase.START
+        || event.side.isClient()) {
+      return;
     }
+
+    // Detect the first movement of un-validated players, which means they are logged-in.
+    long startTimer = LobbyStats.startTimer();
+    PlayerValidation playerValidation = playerValidationMap.get(event.player.getUUID());
+    if (playerValidation != null && playerValidation.hasPlayerMoved()) {
+      LobbyStats.increment(LobbyStats.Counter.LOGINS_VALIDATED);
+      log.info("{} Player was successful validated after {} secs.",
+          playerValidation.getUsername(), playerValidation.getValidationTimeSecondsElapsed());
+      removePlayer(event.player.getUUID());
+      if (automaticTransferIsEnabled()) {
+        transferringPlayerToLobby(playerValidation.getPlayer());
+      }
+    }
+    LobbyStats.stopTimer(LobbyStats.Timer.LOGIN_VALIDATION, startTimer);
   }
 
   @SubscribeEvent
   public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
-    if (event.phase == TickEvent.Phase.END || !automaticTransferIsEnabled() || ticker++ < 40) {
+    if (event.phase == TickEvent.Phase.END || playerValidationDeadlines.isEmpty()) {
       return;
     }
 
-    if (!playerValidationList.isEmpty()) {
-      try {
-        // Check for any un-validated players and try to detect if they logged-in.
-        for (PlayerValidation playerValidation : playerValidationList) {
-          String username = playerValidation.getUsername();
-          if (playerValidation.hasPlayerMoved()) {
-            long validationTimeInSecs = playerValidation.getValidationTimeSecondsElapsed();
-            log.info("{} Player was successful validated after {} secs.", username,
-                validationTimeInSecs);
-            transferringPlayerToLobby(playerValidation.getPlayer());
-            addPlayer(username);
-          } else if (playerValidation
-              .getValidationTimeElapsed() >= PLAYER_LOGIN_VALIDATION_TIMEOUT_MILLI) {
-            log.warn(
-                "User tracking for player {} timed out after {} secs. User will not be teleported to lobby!",
-                username, PLAYER_LOGIN_TRACKING_TIMEOUT);
-            addPlayer(username);
-          }
-        }
-      } catch (ConcurrentModificationException error) {
-        log.error(
-            "{} Unexpected error during user validation. Please report the following error under {}.\n{}",
-            Constants.LOG_PLAYER_MANAGER_PREFIX, error);
+    // Deadlines are added in login order, so only the head of the queue needs to be checked.
+    long currentTime = System.currentTimeMillis();
+    while (!playerValidationDeadlines.isEmpty()
+        && currentTime - playerValidationDeadlines.peek()
+            .getValidationTime() >= PLAYER_LOGIN_VALIDATION_TIMEOUT_MILLI) {
+      PlayerValidation playerValidation = playerValidationDeadlines.poll();
+      UUID uuid = playerValidation.getPlayer().getUUID();
+      if (playerValidationMap.remove(uuid, playerValidation)) {
+        LobbyStats.increment(LobbyStats.Counter.LOGINS_TIMED_OUT);
+        log.warn(
+            "User tracking for player {} timed out after {} secs. User will not be teleported to lobby!",
+            playerValidation.getUsername(), PLAYER_LOGIN_TRACKING_TIMEOUT);
       }
     }
-    ticker = 0;
   }
 
-  private static boolean automaticTransferIsEnabled() {
-    return (COMMON.generalDefaultToLobby.get() || COMMON.generalDefaultToLobbyOnce.get()
-        || COMMON.generalDefaultToLobbyAlways.get()) && DimensionManager.getLobbyDimension() != null
-        && COMMON.lobbyEnabled.get();
+  public static int getValidationBacklog() {
+    return playerValidationMap.size();
   }
 
-  private static void addPlayer(String username) {
-    ServerPlayer player =
-        ServerLifecycleHooks.getCurrentServer().getPlayerList().getPlayerByName(username);
-    try {
-      for (PlayerValidation playerValidation : playerValidationList) {
-        if (username.equals(playerValidation.getUsername())) {
-          log.debug("{} Found player {} with player tracking {}",
-              Constants.LOG_PLAYER_MANAGER_PREFIX, player, playerValidation);
-          playerValidationList.remove(playerValidation);
-          break;
-        }
-      }
-    } catch (ConcurrentModificationException error) {
-      log.error(
-          "{} Unexpected error during adding player. Please report the following error under {} .\n{}",
-          Constants.LOG_PLAYER_MANAGER_PREFIX, Constants.ISSUE_REPORT, error);
-    }
-    log.debug("Added player {}", username);
+  private static boolean automaticTransferIsEnabled() {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    return config.isAutomaticTransferEnabled() && config.lobbySettings.enabled
+        && DimensionManager.getLobbyDimension() != null;
   }
 
-  private static void removePlayer(String username) {
-    try {
-      for (PlayerValidation playerValidation : playerValidationList) {
-        if (username.equals(playerValidation.getUsername())) {
-          playerValidationList.remove(playerValidation);
-          break;
-        }
-      }
-    } catch (ConcurrentModificationException error) {
-      log.error(
-          "{} Unexpected error during removing player. Please report the following error under {} .\n{}",
-          Constants.LOG_PLAYER_MANAGER_PREFIX, Constants.ISSUE_REPORT, error);
+  private static void removePlayer(UUID uuid) {
+    PlayerValidation playerValidation = playerValidationMap.remove(uuid);
+    if (playerValidation != null) {
+      log.debug("Remove player {} from login validation", playerValidation.getUsername());
     }
-    log.debug("Remove player {}", username);
   }
 
   private static void transferringPlayerToLobby(ServerPlayer player) {
     if (player == null || player.level == DimensionManager.getLobbyDimension()) {
       return;
     }
-    if (Boolean.TRUE.equals(COMMON.generalDefaultToLobbyAlways.get())
-        || ((COMMON.generalDefaultToLobbyOnce.get() || COMMON.generalDefaultToLobby.get())
-            && !playerTeleportList.contains(player.getUUID()))) {
-      if (Boolean.TRUE.equals(!COMMON.generalDefaultToLobbyAlways.get())
-          && playerTeleportList.contains(player.getUUID())) {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    boolean hasBeenTransferred = hasBeenTransferred(player.getUUID());
+    if (config.generalDefaultToLobbyAlways
+        || ((config.generalDefaultToLobbyOnce || config.generalDefaultToLobby)
+            && !hasBeenTransferred)) {
+      if (!config.generalDefaultToLobbyAlways && hasBeenTransferred) {
         log.info("{} Skip transferring {} ({}) to lobby ...", Constants.LOG_TELEPORT_MANAGER_PREFIX,
             player, player.level);
       } else {
-        if (Boolean.TRUE.equals(COMMON.generalDefaultToLobbyOnce.get())) {
+        if (config.generalDefaultToLobbyOnce) {
           log.info("{} Transferring {} ({}) for the first time and only once to lobby ...",
               Constants.LOG_TELEPORT_MANAGER_PREFIX, player, player.level);
         } else {
           log.info("{} Transferring {} ({}) to lobby ...", Constants.LOG_TELEPORT_MANAGER_PREFIX,
               player, player.level);
         }
-        DimensionManager.teleportToLobby(player);
+        LobbyTransferQueue.enqueue(player);
       }
     }
-    playerTeleportList.add(player.getUUID());
+  }
 
+  /**
+   * Records the player as transferred, once the transfer queue has teleported the player.
+   */
+  static void markTransferredToLobby(ServerPlayer player) {
     // Store Player Teleport List, if user should be only transferred once!
-    if (Boolean.TRUE.equals(COMMON.generalDefaultToLobbyOnce.get())) {
-      LobbyData.get().setPlayerTeleportList(playerTeleportList);
+    if (LobbyConfigSnapshot.get().generalDefaultToLobbyOnce) {
+      LobbyData.get().addPlayerTeleport(player.getUUID());
+    } else {
+      sessionTransfers.add(player.getUUID());
     }
   }
 
+  private static boolean hasBeenTransferred(UUID uuid) {
+    return LobbyConfigSnapshot.get().generalDefaultToLobbyOnce
+        ? LobbyData.get().hasPlayerTeleport(uuid)
+        : sessionTransfers.contains(uuid);
+  }
+
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.stats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power of two nanosecond buckets. Percentiles are reported as
+ * the upper bound of their bucket, which is precise enough to spot handlers eating the tick budget.
+ */
+public class LatencyHistogram {
+
+  public static final int BUCKETS = 40;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  public void record(long nanos) {
+    long value = Math.max(nanos, 1);
+    this.buckets.incrementAndGet(Math.min(63 - Long.numberOfLeadingZeros(value), BUCKETS - 1));
+    this.count.increment();
+    this.totalNanos.add(value);
+    this.maxNanos.accumulateAndGet(value, Math::max);
+  }
+
+  public long getBucketCount(int bucket) {
+    return this.buckets.get(bucket);
+  }
+
+  public static long getBucketUpperBoundNanos(int bucket) {
+    return 1L << (bucket + 1);
+  }
+
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  public long getTotalNanos() {
+    return this.totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return this.maxNanos.get();
+  }
+
+  public long getMeanNanos() {
+    long numberOfValues = getCount();
+    return numberOfValues > 0 ? getTotalNanos() / numberOfValues : 0;
+  }
+
+  public long getPercentileNanos(double percentile) {
+    long numberOfValues = getCount();
+    if (numberOfValues == 0) {
+      return 0;
+    }
+    long threshold = (long) Math.ceil(numberOfValues * percentile / 100.0);
+    long seenValues = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seenValues += this.buckets.get(bucket);
+      if (seenValues >= threshold) {
+        return Math.min(getBucketUpperBoundNanos(bucket), getMaxNanos());
+      }
+    }
+    return getMaxNanos();
+  }
+
+  public void reset() {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      this.buckets.set(bucket, 0);
+    }
+    this.count.reset();
+    this.totalNanos.reset();
+    this.maxNanos.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms total=%dms",
+        getCount(), toMillis(getMeanNanos()), toMillis(getPercentileNanos(50)),
+        toMillis(getPercentileNanos(99)), toMillis(getMaxNanos()),
+        TimeUnit.NANOSECONDS.toMillis(getTotalNanos()));
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
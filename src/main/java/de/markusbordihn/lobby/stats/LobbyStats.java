@@ -0,0 +1,246 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.world.entity.MobCategory;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.dimension.DimensionRole;
+import de.markusbordihn.lobby.dimension.DimensionRoute;
+import de.markusbordihn.lobby.dimension.EntityPopulationTracker;
+
+/**
+ * Counters and handler timings for the lobby subsystems. Everything is a no-op unless the
+ * statistics are enabled in the config, so the instrumented handlers only pay a boolean check.
+ */
+@EventBusSubscriber
+public class LobbyStats {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  public enum Counter {
+    DIMENSION_CHANGES("Players that changed their dimension."),
+    SPAWNS_DENIED("Living spawns denied in the managed dimensions."),
+    SPAWNS_CAPPED("Living spawns denied by a population cap."),
+    ENTITY_JOINS_DENIED("Entity joins cancelled in the managed dimensions."),
+    CHUNKS_SCRUBBED("Chunks scrubbed after loading."),
+    BLOCK_ENTITIES_SCRUBBED("Block entities removed by the chunk scrubber."),
+    TELEPORTS("Completed player teleports."),
+    TELEPORTS_ABORTED("Scheduled player teleports that were aborted."),
+    LOGINS_VALIDATED("Player logins that passed the validation."),
+    LOGINS_TIMED_OUT("Player logins that timed out during the validation."),
+    TRANSFERS_QUEUED("Players queued for the transfer to the lobby."),
+    ENTITY_TICKS_FROZEN("Decorative entity ticks skipped without a player nearby.");
+
+    private final String description;
+
+    Counter(String description) {
+      this.description = description;
+    }
+
+    public String getDescription() {
+      return this.description;
+    }
+  }
+
+  public enum Timer {
+    CHANGE_DIMENSION,
+    ENTITY_JOIN,
+    LIVING_SPAWN,
+    CHUNK_LOAD,
+    CHUNK_SCRUBBER,
+    LOGIN_VALIDATION,
+    TELEPORT_SCHEDULER,
+    TELEPORT
+  }
+
+  private static final int TICKS_PER_MINUTE = 20 * 60;
+
+  private static final LongAdder[] counters = new LongAdder[Counter.values().length];
+  private static final LatencyHistogram[] timers = new LatencyHistogram[Timer.values().length];
+  private static final LongAdder[] deniedSpawns = new LongAdder[DimensionRole.values().length];
+
+  private static volatile boolean enabled = false;
+  private static long startTime = System.currentTimeMillis();
+  private static int ticker = 0;
+
+  static {
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = new LongAdder();
+    }
+    for (int i = 0; i < timers.length; i++) {
+      timers[i] = new LatencyHistogram();
+    }
+    for (int i = 0; i < deniedSpawns.length; i++) {
+      deniedSpawns[i] = new LongAdder();
+    }
+  }
+
+  protected LobbyStats() {}
+
+  @SubscribeEvent
+  public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    enabled = LobbyConfigSnapshot.get().statsEnabled;
+    if (enabled) {
+      log.info("{} Statistics are enabled and could be shown with /{} stats.", Constants.LOG_NAME,
+          Constants.MOD_COMMAND);
+    }
+    reset();
+  }
+
+  @SubscribeEvent
+  public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
+    if (event.phase == TickEvent.Phase.END) {
+      return;
+    }
+
+    // Follow config reloads without checking the config in every instrumented handler.
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    enabled = config.statsEnabled;
+    if (!enabled || config.statsLogInterval <= 0
+        || ++ticker < config.statsLogInterval * TICKS_PER_MINUTE) {
+      return;
+    }
+    ticker = 0;
+    log.info("{} Statistics summary:", Constants.LOG_NAME);
+    for (String line : getSummary()) {
+      log.info("{}   {}", Constants.LOG_NAME, line);
+    }
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void increment(Counter counter) {
+    if (enabled) {
+      counters[counter.ordinal()].increment();
+    }
+  }
+
+  public static void add(Counter counter, long value) {
+    if (enabled && value != 0) {
+      counters[counter.ordinal()].add(value);
+    }
+  }
+
+  public static void incrementDeniedSpawns(DimensionRole role) {
+    if (enabled) {
+      counters[Counter.SPAWNS_DENIED.ordinal()].increment();
+      deniedSpawns[role.ordinal()].increment();
+    }
+  }
+
+  /**
+   * @return the start time in nanoseconds or 0 if statistics are disabled.
+   */
+  public static long startTimer() {
+    return enabled ? System.nanoTime() : 0L;
+  }
+
+  public static void stopTimer(Timer timer, long startTimer) {
+    if (startTimer != 0L) {
+      timers[timer.ordinal()].record(System.nanoTime() - startTimer);
+    }
+  }
+
+  public static long getCount(Counter counter) {
+    return counters[counter.ordinal()].sum();
+  }
+
+  public static long getDeniedSpawns(DimensionRole role) {
+    return deniedSpawns[role.ordinal()].sum();
+  }
+
+  public static LatencyHistogram getTimer(Timer timer) {
+    return timers[timer.ordinal()];
+  }
+
+  public static long getUptimeSeconds() {
+    return (System.currentTimeMillis() - startTime) / 1000;
+  }
+
+  public static List<String> getSummary() {
+    List<String> summary = new ArrayList<>();
+    summary.add(String.format("Statistics %s for the last %ss", enabled ? "enabled" : "disabled",
+        getUptimeSeconds()));
+    for (Counter counter : Counter.values()) {
+      summary.add(
+          String.format("%s: %d", counter.name().toLowerCase(Locale.ROOT), getCount(counter)));
+    }
+    for (Timer timer : Timer.values()) {
+      LatencyHistogram histogram = getTimer(timer);
+      if (histogram.getCount() > 0) {
+        summary.add(String.format("%s: %s", timer.name().toLowerCase(Locale.ROOT), histogram));
+      }
+    }
+    for (DimensionRoute route : DimensionManager.getRoutes()) {
+      summary.add(String.format("entities %s: %s", route.getManagedDimension().getId(),
+          getPopulationSummary(route)));
+    }
+    return summary;
+  }
+
+  private static String getPopulationSummary(DimensionRoute route) {
+    StringBuilder populationSummary = new StringBuilder();
+    int[] population = EntityPopulationTracker.getCounts(route.getLevel());
+    for (MobCategory category : MobCategory.values()) {
+      if (populationSummary.length() > 0) {
+        populationSummary.append(", ");
+      }
+      populationSummary.append(category.getName()).append('=')
+          .append(population[category.ordinal()]);
+      int populationCap = route.getPopulationCap(category);
+      if (populationCap >= 0) {
+        populationSummary.append('/').append(populationCap);
+      }
+    }
+    return populationSummary.toString();
+  }
+
+  public static void reset() {
+    for (LongAdder counter : counters) {
+      counter.reset();
+    }
+    for (LatencyHistogram timer : timers) {
+      timer.reset();
+    }
+    for (LongAdder deniedSpawn : deniedSpawns) {
+      deniedSpawn.reset();
+    }
+    startTime = System.currentTimeMillis();
+    ticker = 0;
+  }
+}
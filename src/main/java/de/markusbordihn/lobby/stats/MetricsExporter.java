@@ -0,0 +1,252 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.stats;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.world.entity.MobCategory;
+
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.dimension.DimensionIdleManager;
+import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.dimension.DimensionRole;
+import de.markusbordihn.lobby.dimension.DimensionRoute;
+import de.markusbordihn.lobby.dimension.EntityPopulationTracker;
+import de.markusbordihn.lobby.dimension.MiningChunkScrubber;
+import de.markusbordihn.lobby.player.LobbyTransferQueue;
+import de.markusbordihn.lobby.player.PlayerManager;
+import de.markusbordihn.lobby.teleporter.PlayerTeleportManager;
+
+/**
+ * Optional Prometheus endpoint on localhost. Gauges are collected on the server thread once per
+ * second, the HTTP thread only renders the last collected values and the thread-safe counters.
+ */
+@EventBusSubscriber
+public class MetricsExporter {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  private static final int GAUGE_UPDATE_TICKS = 20;
+
+  private static HttpServer httpServer = null;
+  private static ExecutorService executor = null;
+  private static volatile List<String> gauges = List.of();
+  private static int ticker = 0;
+
+  protected MetricsExporter() {}
+
+  @SubscribeEvent
+  public static void handleServerStartedEvent(ServerStartedEvent event) {
+    int port = LobbyConfigSnapshot.get().statsMetricsPort;
+    if (port > 0) {
+      start(port);
+    }
+  }
+
+  @SubscribeEvent
+  public static void handleServerStoppingEvent(ServerStoppingEvent event) {
+    stop();
+  }
+
+  @SubscribeEvent
+  public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
+    if (event.phase == TickEvent.Phase.END || httpServer == null
+        || ticker++ < GAUGE_UPDATE_TICKS) {
+      return;
+    }
+    ticker = 0;
+    updateGauges();
+  }
+
+  private static synchronized void start(int port) {
+    if (httpServer != null) {
+      return;
+    }
+    try {
+      httpServer =
+          HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    } catch (IOException exception) {
+      log.error("{} Unable to start metrics endpoint on port {}: {}", Constants.LOG_NAME, port,
+          exception);
+      return;
+    }
+    executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "Lobby Metrics Exporter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    httpServer.setExecutor(executor);
+    httpServer.createContext("/metrics", MetricsExporter::handleMetricsRequest);
+    httpServer.start();
+    updateGauges();
+    log.info("{} Metrics endpoint is available under http://{}:{}/metrics", Constants.LOG_NAME,
+        InetAddress.getLoopbackAddress().getHostAddress(), port);
+    if (!LobbyStats.isEnabled()) {
+      log.warn("{} Statistics are disabled, only gauges will be exported!", Constants.LOG_NAME);
+    }
+  }
+
+  private static synchronized void stop() {
+    if (httpServer == null) {
+      return;
+    }
+    httpServer.stop(0);
+    executor.shutdownNow();
+    httpServer = null;
+    executor = null;
+    gauges = List.of();
+  }
+
+  private static void updateGauges() {
+    List<String> lines = new ArrayList<>();
+    lines.add("# HELP lobby_players Players per managed dimension.");
+    lines.add("# TYPE lobby_players gauge");
+    for (DimensionRoute route : DimensionManager.getRoutes()) {
+      lines.add(String.format("lobby_players{role=\"%s\",dimension=\"%s\"} %d",
+          getRoleLabel(route.getRole()), route.getLevel().dimension().location(),
+          route.getLevel().players().size()));
+    }
+    lines.add("# HELP lobby_entities Entities per managed dimension and category.");
+    lines.add("# TYPE lobby_entities gauge");
+    for (DimensionRoute route : DimensionManager.getRoutes()) {
+      int[] population = EntityPopulationTracker.getCounts(route.getLevel());
+      for (MobCategory category : MobCategory.values()) {
+        lines.add(String.format("lobby_entities{dimension=\"%s\",category=\"%s\"} %d",
+            route.getLevel().dimension().location(), category.getName(),
+            population[category.ordinal()]));
+      }
+    }
+    addGauge(lines, "lobby_teleport_queue_depth", "Pending delayed teleports.",
+        PlayerTeleportManager.getPendingTeleports());
+    addGauge(lines, "lobby_login_validation_backlog", "Logged in players waiting for validation.",
+        PlayerManager.getValidationBacklog());
+    addGauge(lines, "lobby_transfer_queue_depth", "Players waiting for the transfer to the lobby.",
+        LobbyTransferQueue.getQueueSize());
+    addGauge(lines, "lobby_scrubber_queue_depth", "Mining chunks waiting for the scrubber.",
+        MiningChunkScrubber.getQueueSize());
+    addGauge(lines, "lobby_scrubbed_chunks", "Mining chunks which are already scrubbed.",
+        MiningChunkScrubber.getScrubbedChunks());
+    addGauge(lines, "lobby_parked_dimensions", "Empty dimensions without spawn chunk tickets.",
+        DimensionIdleManager.getParkedDimensions());
+    gauges = List.copyOf(lines);
+  }
+
+  private static void handleMetricsRequest(HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] response = render().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, response.length);
+      try (OutputStream outputStream = exchange.getResponseBody()) {
+        outputStream.write(response);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static String render() {
+    StringBuilder output = new StringBuilder(8192);
+    for (String line : gauges) {
+      output.append(line).append('\n');
+    }
+
+    // Counters
+    for (LobbyStats.Counter counter : LobbyStats.Counter.values()) {
+      String name = "lobby_" + counter.name().toLowerCase(Locale.ROOT) + "_total";
+      output.append("# HELP ").append(name).append(' ').append(counter.getDescription())
+          .append('\n');
+      output.append("# TYPE ").append(name).append(" counter\n");
+      output.append(name).append(' ').append(LobbyStats.getCount(counter)).append('\n');
+    }
+    output.append(
+        "# HELP lobby_dimension_spawns_denied_total Living spawns denied per dimension role.\n");
+    output.append("# TYPE lobby_dimension_spawns_denied_total counter\n");
+    for (DimensionRole role : DimensionRole.values()) {
+      output.append("lobby_dimension_spawns_denied_total{role=\"").append(getRoleLabel(role))
+          .append("\"} ").append(LobbyStats.getDeniedSpawns(role)).append('\n');
+    }
+
+    // Handler latencies as cumulative histograms in seconds.
+    output.append("# HELP lobby_handler_duration_seconds Execution time of the lobby handlers.\n");
+    output.append("# TYPE lobby_handler_duration_seconds histogram\n");
+    for (LobbyStats.Timer timer : LobbyStats.Timer.values()) {
+      LatencyHistogram histogram = LobbyStats.getTimer(timer);
+      String handler = timer.name().toLowerCase(Locale.ROOT);
+      long cumulativeCount = 0;
+      for (int bucket = 0; bucket < LatencyHistogram.BUCKETS - 1; bucket++) {
+        cumulativeCount += histogram.getBucketCount(bucket);
+        output.append("lobby_handler_duration_seconds_bucket{handler=\"").append(handler)
+            .append("\",le=\"")
+            .append(toSeconds(LatencyHistogram.getBucketUpperBoundNanos(bucket))).append("\"} ")
+            .append(cumulativeCount).append('\n');
+      }
+      // +Inf and _count use the same snapshot as the buckets to stay consistent.
+      cumulativeCount += histogram.getBucketCount(LatencyHistogram.BUCKETS - 1);
+      output.append("lobby_handler_duration_seconds_bucket{handler=\"").append(handler)
+          .append("\",le=\"+Inf\"} ").append(cumulativeCount).append('\n');
+      output.append("lobby_handler_duration_seconds_sum{handler=\"").append(handler)
+          .append("\"} ").append(toSeconds(histogram.getTotalNanos())).append('\n');
+      output.append("lobby_handler_duration_seconds_count{handler=\"").append(handler)
+          .append("\"} ").append(cumulativeCount).append('\n');
+    }
+    return output.toString();
+  }
+
+  private static void addGauge(List<String> lines, String name, String help, long value) {
+    lines.add("# HELP " + name + " " + help);
+    lines.add("# TYPE " + name + " gauge");
+    lines.add(name + " " + value);
+  }
+
+  private static String getRoleLabel(DimensionRole role) {
+    return role.name().toLowerCase(Locale.ROOT);
+  }
+
+  private static String toSeconds(long nanos) {
+    return Double.toString(nanos / 1_000_000_000.0);
+  }
+}
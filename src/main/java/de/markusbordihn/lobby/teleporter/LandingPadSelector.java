@@ -0,0 +1,176 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.teleporter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+
+/**
+ * Spreads arrivals over the spawn point and the additional landing pads of a dimension, by the
+ * number of players around each landing pad or by the least recently used landing pad.
+ */
+@EventBusSubscriber
+public class LandingPadSelector {
+
+  public enum Mode {
+    FEWEST_PLAYERS,
+    LEAST_RECENTLY_USED
+  }
+
+  private static final Map<String, LandingPads> landingPadsMap = new HashMap<>();
+
+  protected LandingPadSelector() {}
+
+  @SubscribeEvent
+  public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    landingPadsMap.clear();
+  }
+
+  /**
+   * Returns the spawn point and the additional landing pads of the given dimension.
+   */
+  public static List<BlockPos> getLandingPads(ManagedDimension managedDimension,
+      BlockPos spawnPoint) {
+    return getOrCreate(managedDimension, spawnPoint).positions;
+  }
+
+  public static BlockPos select(ManagedDimension managedDimension, ServerLevel level,
+      BlockPos spawnPoint) {
+    LandingPads landingPads = getOrCreate(managedDimension, spawnPoint);
+    if (LobbyConfigSnapshot.get().teleportLandingPadSelector == Mode.LEAST_RECENTLY_USED) {
+      return landingPads.selectLeastRecentlyUsed();
+    }
+    return landingPads.selectFewestPlayers(level);
+  }
+
+  private static LandingPads getOrCreate(ManagedDimension managedDimension, BlockPos spawnPoint) {
+    List<BlockPos> configuredPads = managedDimension.getSettings().landingPads;
+    LandingPads landingPads = landingPadsMap.get(managedDimension.getId());
+    if (landingPads == null || landingPads.configuredPads != configuredPads
+        || !landingPads.spawnPoint.equals(spawnPoint)) {
+      landingPads = new LandingPads(spawnPoint, configuredPads);
+      landingPadsMap.put(managedDimension.getId(), landingPads);
+    }
+    return landingPads;
+  }
+
+  private static final class LandingPads {
+
+    private final BlockPos spawnPoint;
+    private final List<BlockPos> configuredPads;
+    private final List<BlockPos> positions;
+    private final long[] chunkKeys;
+    private final long[] lastUsed;
+
+    // Number of players per chunk, rebuilt at most once per game tick.
+    private final Long2IntOpenHashMap playersPerChunk = new Long2IntOpenHashMap();
+    private long playersPerChunkGameTime = Long.MIN_VALUE;
+    private long useCounter = 0;
+
+    private LandingPads(BlockPos spawnPoint, List<BlockPos> configuredPads) {
+      this.spawnPoint = spawnPoint;
+      this.configuredPads = configuredPads;
+      this.positions = new ArrayList<>(configuredPads.size() + 1);
+      this.positions.add(spawnPoint);
+      this.positions.addAll(configuredPads);
+      this.chunkKeys = new long[this.positions.size()];
+      for (int i = 0; i < this.chunkKeys.length; i++) {
+        this.chunkKeys[i] = ChunkPos.asLong(this.positions.get(i));
+      }
+      this.lastUsed = new long[this.positions.size()];
+    }
+
+    private BlockPos selectLeastRecentlyUsed() {
+      int selected = 0;
+      for (int i = 1; i < this.lastUsed.length; i++) {
+        if (this.lastUsed[i] < this.lastUsed[selected]) {
+          selected = i;
+        }
+      }
+      return use(selected);
+    }
+
+    private BlockPos selectFewestPlayers(ServerLevel level) {
+      if (this.positions.size() == 1) {
+        return use(0);
+      }
+      updatePlayersPerChunk(level);
+      int selected = 0;
+      int selectedPlayers = Integer.MAX_VALUE;
+      for (int i = 0; i < this.chunkKeys.length; i++) {
+        int players = countPlayersAround(this.chunkKeys[i]);
+        if (players < selectedPlayers
+            || (players == selectedPlayers && this.lastUsed[i] < this.lastUsed[selected])) {
+          selected = i;
+          selectedPlayers = players;
+        }
+      }
+
+      // Count the arrival right away, so that arrivals within the same tick are spread as well.
+      this.playersPerChunk.addTo(this.chunkKeys[selected], 1);
+      return use(selected);
+    }
+
+    private BlockPos use(int index) {
+      this.lastUsed[index] = ++this.useCounter;
+      return this.positions.get(index);
+    }
+
+    private void updatePlayersPerChunk(ServerLevel level) {
+      long gameTime = level.getGameTime();
+      if (this.playersPerChunkGameTime == gameTime) {
+        return;
+      }
+      this.playersPerChunkGameTime = gameTime;
+      this.playersPerChunk.clear();
+      for (ServerPlayer player : level.players()) {
+        this.playersPerChunk.addTo(ChunkPos.asLong(player.blockPosition()), 1);
+      }
+    }
+
+    private int countPlayersAround(long chunkKey) {
+      int chunkX = ChunkPos.getX(chunkKey);
+      int chunkZ = ChunkPos.getZ(chunkKey);
+      int players = 0;
+      for (int x = chunkX - 1; x <= chunkX + 1; x++) {
+        for (int z = chunkZ - 1; z <= chunkZ + 1; z++) {
+          players += this.playersPerChunk.get(ChunkPos.asLong(x, z));
+        }
+      }
+      return players;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.teleporter;
+
+import java.util.UUID;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+import de.markusbordihn.lobby.player.PlayerValidation;
+
+public class PendingTeleport implements TeleportTimingWheel.Entry {
+
+  private final UUID uuid;
+  private final ManagedDimension managedDimension;
+  private final PlayerValidation playerValidation;
+  private final long dueTick;
+  private long scheduledTick;
+
+  public PendingTeleport(ServerPlayer player, ManagedDimension managedDimension, long dueTick) {
+    this.uuid = player.getUUID();
+    this.managedDimension = managedDimension;
+    this.playerValidation = new PlayerValidation(player);
+    this.dueTick = dueTick;
+  }
+
+  public UUID getUUID() {
+    return this.uuid;
+  }
+
+  public ManagedDimension getManagedDimension() {
+    return this.managedDimension;
+  }
+
+  public ServerPlayer getPlayer() {
+    return this.playerValidation.getPlayer();
+  }
+
+  public PlayerValidation getPlayerValidation() {
+    return this.playerValidation;
+  }
+
+  public long getDueTick() {
+    return this.dueTick;
+  }
+
+  @Override
+  public long getScheduledTick() {
+    return this.scheduledTick;
+  }
+
+  @Override
+  public void setScheduledTick(long scheduledTick) {
+    this.scheduledTick = scheduledTick;
+  }
+
+  @Override
+  public String toString() {
+    return "PendingTeleport[uuid=" + this.uuid + ", dimension=" + this.managedDimension
+        + ", dueTick=" + this.dueTick + ", scheduledTick=" + this.scheduledTick + "]";
+  }
+}
@@ -19,9 +19,9 @@
 
 package de.markusbordihn.lobby.teleporter;
 
-import java.util.ConcurrentModificationException;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,31 +31,32 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.server.ServerAboutToStartEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 
 import de.markusbordihn.lobby.Constants;
-import de.markusbordihn.lobby.config.CommonConfig;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.dimension.DimensionIdleManager;
 import de.markusbordihn.lobby.dimension.DimensionManager;
-import de.markusbordihn.lobby.player.PlayerValidation;
+import de.markusbordihn.lobby.dimension.DimensionRole;
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+import de.markusbordihn.lobby.dimension.ManagedDimensionRegistry;
+import de.markusbordihn.lobby.stats.LobbyStats;
 
 @EventBusSubscriber
 public class PlayerTeleportManager {
 
   private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
 
-  private static final CommonConfig.Config COMMON = CommonConfig.COMMON;
-
-  private static Set<PlayerValidation> teleportPlayerToDefaultList = ConcurrentHashMap.newKeySet();
-  private static Set<PlayerValidation> teleportPlayerToFishingList = ConcurrentHashMap.newKeySet();
-  private static Set<PlayerValidation> teleportPlayerToGamingList = ConcurrentHashMap.newKeySet();
-  private static Set<PlayerValidation> teleportPlayerToLobbyList = ConcurrentHashMap.newKeySet();
-  private static Set<PlayerValidation> teleportPlayerToMiningList = ConcurrentHashMap.newKeySet();
-  private static Set<PlayerValidation> teleportPlayerToVoidList = ConcurrentHashMap.newKeySet();
+  private static final Map<UUID, PendingTeleport> pendingTeleports = new HashMap<>();
+  private static final TeleportTimingWheel<PendingTeleport> timingWheel =
+      new TeleportTimingWheel<>();
 
   private static final int PLAYER_TELEPORT_CHECK = 20;
-  private static int ticker = 0;
+  private static final int TICKS_PER_SECOND = 20;
+  private static long ticker = 0;
 
   protected PlayerTeleportManager() {
 
@@ -63,114 +64,119 @@ public class PlayerTeleportManager {
 
   @SubscribeEvent
   public static void onServerAboutToStartEvent(ServerAboutToStartEvent event) {
-    if (Boolean.TRUE.equals(COMMON.teleportDelayEnabled.get())
-        && COMMON.teleportDelayCounter.get() > 0) {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
+    if (config.isTeleportDelayEnabled()) {
       log.info("Teleporting of Players will be delayed by {} seconds.",
-          COMMON.teleportDelayCounter.get());
+          config.teleportDelayCounter);
     }
+    pendingTeleports.clear();
+    timingWheel.clear();
+    ticker = 0;
   }
 
   @SubscribeEvent
   public static void handleServerTickEvent(TickEvent.ServerTickEvent event) {
-
-    if (Boolean.TRUE.equals(event.phase == TickEvent.Phase.END || !COMMON.teleportDelayEnabled.get()
-        || COMMON.teleportDelayCounter.get() <= 0) || ticker++ < PLAYER_TELEPORT_CHECK) {
+    if (event.phase == TickEvent.Phase.END) {
       return;
     }
+    ticker++;
+    if (timingWheel.isEmpty()) {
+      return;
+    }
+    long startTimer = LobbyStats.startTimer();
+    timingWheel.advance(ticker, PlayerTeleportManager::handlePendingTeleport);
+    LobbyStats.stopTimer(LobbyStats.Timer.TELEPORT_SCHEDULER, startTimer);
+  }
 
-    // Check each dimension teleport list separated.
-    checkTeleportToDimension(teleportPlayerToDefaultList, "Default");
-    checkTeleportToDimension(teleportPlayerToFishingList, "Fishing");
-    checkTeleportToDimension(teleportPlayerToGamingList, "Gaming");
-    checkTeleportToDimension(teleportPlayerToLobbyList, "Lobby");
-    checkTeleportToDimension(teleportPlayerToMiningList, "Mining");
-    checkTeleportToDimension(teleportPlayerToVoidList, "Void");
-
-    ticker = 0;
+  @SubscribeEvent
+  public static void handlePlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event) {
+    if (!pendingTeleports.isEmpty()) {
+      pendingTeleports.remove(event.getEntity().getUUID());
+    }
   }
 
   public static void teleportPlayerToDefault(ServerPlayer player) {
-    teleportPlayerToDefaultList.add(new PlayerValidation(player));
+    teleportPlayerTo(player, ManagedDimensionRegistry.get().getBuiltIn(DimensionRole.DEFAULT));
   }
 
   public static void teleportPlayerToFishing(ServerPlayer player) {
-    teleportPlayerToFishingList.add(new PlayerValidation(player));
+    teleportPlayerTo(player, ManagedDimensionRegistry.get().getBuiltIn(DimensionRole.FISHING));
   }
 
   public static void teleportPlayerToGaming(ServerPlayer player) {
-    teleportPlayerToGamingList.add(new PlayerValidation(player));
+    teleportPlayerTo(player, ManagedDimensionRegistry.get().getBuiltIn(DimensionRole.GAMING));
   }
 
   public static void teleportPlayerToLobby(ServerPlayer player) {
-    teleportPlayerToLobbyList.add(new PlayerValidation(player));
+    teleportPlayerTo(player, ManagedDimensionRegistry.get().getBuiltIn(DimensionRole.LOBBY));
   }
 
   public static void teleportPlayerToMining(ServerPlayer player) {
-    teleportPlayerToMiningList.add(new PlayerValidation(player));
+    teleportPlayerTo(player, ManagedDimensionRegistry.get().getBuiltIn(DimensionRole.MINING));
   }
 
   public static void teleportPlayerToVoid(ServerPlayer player) {
-    teleportPlayerToVoidList.add(new PlayerValidation(player));
+    teleportPlayerTo(player, ManagedDimensionRegistry.get().getBuiltIn(DimensionRole.VOID));
   }
 
-  private static void checkTeleportToDimension(Set<PlayerValidation> playerValidationSet,
-      String dimensionName) {
-    if (playerValidationSet.isEmpty() || dimensionName.isEmpty()) {
+  public static boolean hasPendingTeleport(ServerPlayer player) {
+    return pendingTeleports.containsKey(player.getUUID());
+  }
+
+  public static int getPendingTeleports() {
+    return pendingTeleports.size();
+  }
+
+  public static void teleportPlayerTo(ServerPlayer player, ManagedDimension managedDimension) {
+    long dueTick =
+        ticker + (long) LobbyConfigSnapshot.get().teleportDelayCounter * TICKS_PER_SECOND;
+    PendingTeleport pendingTeleport = new PendingTeleport(player, managedDimension, dueTick);
+
+    // Only one pending teleport per player, a replaced entry is dropped from the wheel once due.
+    pendingTeleports.put(pendingTeleport.getUUID(), pendingTeleport);
+    timingWheel.schedule(pendingTeleport, Math.min(ticker + PLAYER_TELEPORT_CHECK, dueTick));
+
+    // Start loading the target chunks, while the player is waiting for the teleport.
+    DimensionIdleManager.activate(managedDimension);
+    SpawnChunkWarmer.preload(managedDimension);
+  }
+
+  private static void handlePendingTeleport(PendingTeleport pendingTeleport) {
+    // Ignore replaced or canceled teleports.
+    if (pendingTeleports.get(pendingTeleport.getUUID()) != pendingTeleport) {
       return;
     }
-    try {
-      for (PlayerValidation playerValidation : playerValidationSet) {
-        String username = playerValidation.getUsername();
-        ServerPlayer player = playerValidation.getPlayer();
-        if (playerValidation.hasPlayerMovedPosition()) {
-          log.debug("Player {} has moved, abort teleport to {} ...", username);
-          player.sendSystemMessage(
-              Component.translatable(Constants.TEXT_PREFIX + "teleport_abort", dimensionName)
-                  .withStyle(ChatFormatting.RED));
-          playerValidationSet.remove(playerValidation);
-          return;
-        } else if (playerValidation.getValidationTimeSecondsElapsed() >= COMMON.teleportDelayCounter
-            .get()) {
-          switch (dimensionName) {
-            case "Default":
-              DimensionManager.teleportToDefault(player);
-              break;
-            case "Fishing":
-              DimensionManager.teleportToFishing(player);
-              break;
-            case "Gaming":
-              DimensionManager.teleportToGaming(player);
-              break;
-            case "Lobby":
-              DimensionManager.teleportToLobby(player);
-              break;
-            case "Mining":
-              DimensionManager.teleportToMining(player);
-              break;
-            case "Void":
-              DimensionManager.teleportToVoid(player);
-              break;
-            default:
-              log.error("Unsupported dimension {}!", dimensionName);
-          }
-          playerValidationSet.remove(playerValidation);
-          return;
-        } else {
-          long teleportCounterRemaining = COMMON.teleportDelayCounter.get()
-              - playerValidation.getValidationTimeSecondsElapsed();
-          log.debug("Player {} has not moved, teleport in {} secs ...", username,
-              teleportCounterRemaining);
-          if (Boolean.TRUE.equals(COMMON.teleportDelayCounterVisible.get())) {
-            player.sendSystemMessage(
-                Component.translatable(Constants.TEXT_PREFIX + "teleport_remaining", dimensionName,
-                    teleportCounterRemaining).withStyle(ChatFormatting.GREEN));
-          }
-        }
+    ServerPlayer player = pendingTeleport.getPlayer();
+    String dimensionName = pendingTeleport.getManagedDimension().getDimensionName();
+    if (player.isRemoved()) {
+      // Player instance was replaced, e.g. by a respawn, so the position could not be compared.
+      pendingTeleports.remove(pendingTeleport.getUUID());
+      return;
+    }
+
+    if (pendingTeleport.getPlayerValidation().hasPlayerMovedPosition()) {
+      log.debug("Player {} has moved, abort teleport to {} ...",
+          pendingTeleport.getPlayerValidation().getUsername(), dimensionName);
+      player.sendSystemMessage(
+          Component.translatable(Constants.TEXT_PREFIX + "teleport_abort", dimensionName)
+              .withStyle(ChatFormatting.RED));
+      pendingTeleports.remove(pendingTeleport.getUUID());
+      LobbyStats.increment(LobbyStats.Counter.TELEPORTS_ABORTED);
+    } else if (ticker >= pendingTeleport.getDueTick()) {
+      pendingTeleports.remove(pendingTeleport.getUUID());
+      DimensionManager.teleportTo(player, pendingTeleport.getManagedDimension());
+    } else {
+      long teleportCounterRemaining =
+          (pendingTeleport.getDueTick() - ticker + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND;
+      log.debug("Player {} has not moved, teleport in {} secs ...",
+          pendingTeleport.getPlayerValidation().getUsername(), teleportCounterRemaining);
+      if (LobbyConfigSnapshot.get().teleportDelayCounterVisible) {
+        player.sendSystemMessage(
+            Component.translatable(Constants.TEXT_PREFIX + "teleport_remaining", dimensionName,
+                teleportCounterRemaining).withStyle(ChatFormatting.GREEN));
       }
-    } catch (ConcurrentModificationException error) {
-      log.error(
-          "{} Unexpected error during user validation. Please report the following error under {}.\n{}",
-          Constants.LOG_PLAYER_MANAGER_PREFIX, error);
+      timingWheel.schedule(pendingTeleport,
+          Math.min(ticker + PLAYER_TELEPORT_CHECK, pendingTeleport.getDueTick()));
     }
   }
 
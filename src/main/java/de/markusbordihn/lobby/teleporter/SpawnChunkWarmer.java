@@ -0,0 +1,172 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.teleporter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+
+import de.markusbordihn.lobby.Constants;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+import de.markusbordihn.lobby.dimension.ManagedDimensionRegistry;
+
+/**
+ * Keeps the chunks around the spawn points and landing pads of the managed dimensions loaded with
+ * region tickets, so that teleports do not need to load them synchronously. Queued teleports add a
+ * short timed ticket, which loads the chunks asynchronously until the teleport is due.
+ */
+@EventBusSubscriber
+public class SpawnChunkWarmer {
+
+  private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
+
+  // Longest teleport delay with some margin, timed tickets are refreshed with each new request.
+  private static final int PRELOAD_TICKET_LIFESPAN = (60 + 10) * 20;
+
+  private static final TicketType<ChunkPos> SPAWN_TICKET =
+      TicketType.create(Constants.MOD_ID + "_spawn", Comparator.comparingLong(ChunkPos::toLong));
+  private static final TicketType<ChunkPos> PRELOAD_TICKET = TicketType.create(
+      Constants.MOD_ID + "_preload", Comparator.comparingLong(ChunkPos::toLong),
+      PRELOAD_TICKET_LIFESPAN);
+
+  private static final Map<String, WarmSpawn> warmSpawns = new HashMap<>();
+
+  protected SpawnChunkWarmer() {}
+
+  @SubscribeEvent
+  public static void handleServerStartedEvent(ServerStartedEvent event) {
+    int radius = LobbyConfigSnapshot.get().teleportWarmChunkRadius;
+    if (radius <= 0) {
+      return;
+    }
+    for (ManagedDimension managedDimension : ManagedDimensionRegistry.get().getAll()) {
+      if (managedDimension.isEnabled()) {
+        warm(managedDimension);
+      }
+    }
+  }
+
+  @SubscribeEvent
+  public static void handleServerStoppingEvent(ServerStoppingEvent event) {
+    for (WarmSpawn warmSpawn : warmSpawns.values()) {
+      warmSpawn.release();
+    }
+    warmSpawns.clear();
+  }
+
+  /**
+   * Adds a permanent region ticket around the spawn point of the given dimension.
+   */
+  public static void warm(ManagedDimension managedDimension) {
+    int radius = LobbyConfigSnapshot.get().teleportWarmChunkRadius;
+    ServerLevel level = DimensionManager.getDimension(managedDimension);
+    if (radius <= 0 || level == null || warmSpawns.containsKey(managedDimension.getId())) {
+      return;
+    }
+    BlockPos spawnPoint = TeleporterManager.getSpawnPoint(managedDimension, level);
+    WarmSpawn warmSpawn =
+        new WarmSpawn(level, getChunkPositions(managedDimension, spawnPoint), radius);
+    for (ChunkPos chunkPos : warmSpawn.chunkPositions) {
+      level.getChunkSource().addRegionTicket(SPAWN_TICKET, chunkPos, radius, chunkPos);
+    }
+    warmSpawns.put(managedDimension.getId(), warmSpawn);
+    log.info("{} Keeping chunks in radius {} around spawn point {} and {} landing pads of {}.",
+        Constants.LOG_TELEPORT_MANAGER_PREFIX, radius, spawnPoint,
+        managedDimension.getSettings().landingPads.size(), managedDimension.getId());
+  }
+
+  /**
+   * Removes the permanent region ticket of the given dimension, if any.
+   */
+  public static void release(ManagedDimension managedDimension) {
+    WarmSpawn warmSpawn = warmSpawns.remove(managedDimension.getId());
+    if (warmSpawn != null) {
+      warmSpawn.release();
+    }
+  }
+
+  public static boolean isWarm(ManagedDimension managedDimension) {
+    return warmSpawns.containsKey(managedDimension.getId());
+  }
+
+  /**
+   * Requests an asynchronous load of the chunks around the spawn point, which expires on its own.
+   */
+  public static void preload(ManagedDimension managedDimension) {
+    ServerLevel level = DimensionManager.getDimension(managedDimension);
+    if (level == null) {
+      return;
+    }
+    int radius = Math.max(1, LobbyConfigSnapshot.get().teleportWarmChunkRadius);
+    for (ChunkPos chunkPos : getChunkPositions(managedDimension,
+        TeleporterManager.getSpawnPoint(managedDimension, level))) {
+      level.getChunkSource().addRegionTicket(PRELOAD_TICKET, chunkPos, radius, chunkPos);
+    }
+  }
+
+  private static List<ChunkPos> getChunkPositions(ManagedDimension managedDimension,
+      BlockPos spawnPoint) {
+    List<ChunkPos> chunkPositions = new ArrayList<>();
+    for (BlockPos landingPad : LandingPadSelector.getLandingPads(managedDimension, spawnPoint)) {
+      ChunkPos chunkPos = new ChunkPos(landingPad);
+      if (!chunkPositions.contains(chunkPos)) {
+        chunkPositions.add(chunkPos);
+      }
+    }
+    return chunkPositions;
+  }
+
+  private static final class WarmSpawn {
+
+    private final ServerLevel level;
+    private final List<ChunkPos> chunkPositions;
+    private final int radius;
+
+    private WarmSpawn(ServerLevel level, List<ChunkPos> chunkPositions, int radius) {
+      this.level = level;
+      this.chunkPositions = chunkPositions;
+      this.radius = radius;
+    }
+
+    private void release() {
+      for (ChunkPos chunkPos : this.chunkPositions) {
+        this.level.getChunkSource().removeRegionTicket(SPAWN_TICKET, chunkPos, this.radius,
+            chunkPos);
+      }
+    }
+  }
+}
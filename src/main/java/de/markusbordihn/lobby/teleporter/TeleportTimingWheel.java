@@ -0,0 +1,109 @@
+/**
+ * Copyright 2022 Markus Bordihn
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package de.markusbordihn.lobby.teleporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel with one slot per tick. Entries are placed into the slot of their scheduled
+ * tick and entries which are more than one revolution ahead simply stay in their slot until their
+ * tick is reached, so scheduling and advancing are O(1) per entry.
+ */
+public class TeleportTimingWheel<T extends TeleportTimingWheel.Entry> {
+
+  /** Entry of the wheel, which keeps its own scheduled tick. */
+  public interface Entry {
+
+    long getScheduledTick();
+
+    void setScheduledTick(long scheduledTick);
+  }
+
+  private static final int WHEEL_SIZE = 64;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  private final List<List<T>> slots = new ArrayList<>(WHEEL_SIZE);
+  private final List<T> dueEntries = new ArrayList<>();
+  private long currentTick = 0;
+  private int size = 0;
+
+  public TeleportTimingWheel() {
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      this.slots.add(new ArrayList<>());
+    }
+  }
+
+  public void schedule(T entry, long tick) {
+    long scheduledTick = Math.max(tick, this.currentTick + 1);
+    entry.setScheduledTick(scheduledTick);
+    this.slots.get((int) (scheduledTick & WHEEL_MASK)).add(entry);
+    this.size++;
+  }
+
+  /**
+   * Advances the wheel to the given tick and passes all due entries as one batch to the handler.
+   * The handler is allowed to re-schedule entries.
+   */
+  public void advance(long tick, Consumer<T> handler) {
+    this.currentTick = tick;
+    List<T> slot = this.slots.get((int) (tick & WHEEL_MASK));
+    if (slot.isEmpty()) {
+      return;
+    }
+
+    // Move due entries out of the slot first, so that the handler could re-schedule them.
+    for (int i = slot.size() - 1; i >= 0; i--) {
+      T entry = slot.get(i);
+      if (entry.getScheduledTick() <= tick) {
+        int lastIndex = slot.size() - 1;
+        slot.set(i, slot.get(lastIndex));
+        slot.remove(lastIndex);
+        this.dueEntries.add(entry);
+      }
+    }
+    this.size -= this.dueEntries.size();
+    for (T entry : this.dueEntries) {
+      handler.accept(entry);
+    }
+    this.dueEntries.clear();
+  }
+
+  public long getCurrentTick() {
+    return this.currentTick;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public void clear() {
+    for (List<T> slot : this.slots) {
+      slot.clear();
+    }
+    this.dueEntries.clear();
+    this.size = 0;
+  }
+}
@@ -40,16 +40,19 @@ import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import dev.ftb.mods.ftbessentials.util.FTBEPlayerData;
 
 import de.markusbordihn.lobby.Constants;
-import de.markusbordihn.lobby.config.CommonConfig;
-import de.markusbordihn.lobby.dimension.DimensionManager;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot;
+import de.markusbordihn.lobby.config.LobbyConfigSnapshot.DimensionSettings;
+import de.markusbordihn.lobby.dimension.DimensionIdleManager;
+import de.markusbordihn.lobby.dimension.DimensionRole;
+import de.markusbordihn.lobby.dimension.ManagedDimension;
+import de.markusbordihn.lobby.dimension.ManagedDimensionRegistry;
+import de.markusbordihn.lobby.stats.LobbyStats;
 
 @EventBusSubscriber
 public class TeleporterManager {
 
   private static final Logger log = LogManager.getLogger(Constants.LOG_NAME);
 
-  private static final CommonConfig.Config COMMON = CommonConfig.COMMON;
-
   // Default spawn points for the default structures
   private static BlockPos defaultFishingSpawnPoint = new BlockPos(42, 51, 12);
   private static BlockPos defaultGamingSpawnPoint = new BlockPos(0, 4, 0);
@@ -69,184 +72,104 @@ public class TeleporterManager {
 
   @SubscribeEvent
   public static void handleServerAboutToStartEvent(ServerAboutToStartEvent event) {
+    LobbyConfigSnapshot config = LobbyConfigSnapshot.get();
 
     // Construct Clickable commands
-    fishingCommand = Component.literal("/" + COMMON.fishingCommandName.get())
+    fishingCommand = Component.literal("/" + config.fishingSettings.commandName)
+        .setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN).withClickEvent(new ClickEvent(
+            ClickEvent.Action.SUGGEST_COMMAND, "/" + config.fishingSettings.commandName)));
+    gamingCommand = Component.literal("/" + config.gamingSettings.commandName)
         .setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN).withClickEvent(new ClickEvent(
-            ClickEvent.Action.SUGGEST_COMMAND, "/" + COMMON.fishingCommandName.get())));
-    gamingCommand = Component.literal("/" + COMMON.gamingCommandName.get())
+            ClickEvent.Action.SUGGEST_COMMAND, "/" + config.gamingSettings.commandName)));
+    lobbyCommand = Component.literal("/" + config.lobbySettings.commandName)
         .setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN).withClickEvent(new ClickEvent(
-            ClickEvent.Action.SUGGEST_COMMAND, "/" + COMMON.gamingCommandName.get())));
-    lobbyCommand = Component.literal("/" + COMMON.lobbyCommandName.get())
+            ClickEvent.Action.SUGGEST_COMMAND, "/" + config.lobbySettings.commandName)));
+    miningCommand = Component.literal("/" + config.miningSettings.commandName)
         .setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN).withClickEvent(new ClickEvent(
-            ClickEvent.Action.SUGGEST_COMMAND, "/" + COMMON.lobbyCommandName.get())));
-    miningCommand = Component.literal("/" + COMMON.miningCommandName.get())
+            ClickEvent.Action.SUGGEST_COMMAND, "/" + config.miningSettings.commandName)));
+    spawnCommand = Component.literal("/" + config.defaultSettings.commandName)
         .setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN).withClickEvent(new ClickEvent(
-            ClickEvent.Action.SUGGEST_COMMAND, "/" + COMMON.miningCommandName.get())));
-    spawnCommand = Component.literal("/" + COMMON.defaultCommandName.get())
+            ClickEvent.Action.SUGGEST_COMMAND, "/" + config.defaultSettings.commandName)));
+    voidCommand = Component.literal("/" + config.voidSettings.commandName)
         .setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN).withClickEvent(new ClickEvent(
-            ClickEvent.Action.SUGGEST_COMMAND, "/" + COMMON.defaultCommandName.get())));
-    voidCommand = Component.literal("/" + COMMON.voidCommandName.get())
-        .setStyle(Style.EMPTY.withColor(ChatFormatting.GREEN).withClickEvent(
-            new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, "/" + COMMON.voidCommandName.get())));
+            ClickEvent.Action.SUGGEST_COMMAND, "/" + config.voidSettings.commandName)));
 
-    if (Boolean.TRUE.equals(COMMON.defaultUseCustomSpawnPoint.get())) {
-      log.info("{} Using custom spawn point {} {} {} for default dimension",
-          Constants.LOG_TELEPORT_MANAGER_PREFIX, COMMON.defaultSpawnPointX.get(),
-          COMMON.defaultSpawnPointY.get(), COMMON.defaultSpawnPointZ.get());
-    }
-    if (Boolean.TRUE.equals(COMMON.fishingUseCustomSpawnPoint.get())) {
-      log.info("{} Using custom spawn point {} {} {} for fishing dimension",
-          Constants.LOG_TELEPORT_MANAGER_PREFIX, COMMON.fishingSpawnPointX.get(),
-          COMMON.fishingSpawnPointY.get(), COMMON.fishingSpawnPointZ.get());
-    }
-    if (Boolean.TRUE.equals(COMMON.gamingUseCustomSpawnPoint.get())) {
-      log.info("{} Using custom spawn point {} {} {} for gaming dimension",
-          Constants.LOG_TELEPORT_MANAGER_PREFIX, COMMON.gamingSpawnPointX.get(),
-          COMMON.gamingSpawnPointY.get(), COMMON.gamingSpawnPointZ.get());
-    }
-    if (Boolean.TRUE.equals(COMMON.lobbyUseCustomSpawnPoint.get())) {
-      log.info("{} Using custom spawn point {} {} {} for lobby dimension",
-          Constants.LOG_TELEPORT_MANAGER_PREFIX, COMMON.lobbySpawnPointX.get(),
-          COMMON.lobbySpawnPointY.get(), COMMON.lobbySpawnPointZ.get());
-    }
-    if (Boolean.TRUE.equals(COMMON.miningUseCustomSpawnPoint.get())) {
-      log.info("{} Using custom spawn point {} {} {} for mining dimension",
-          Constants.LOG_TELEPORT_MANAGER_PREFIX, COMMON.miningSpawnPointX.get(),
-          COMMON.miningSpawnPointY.get(), COMMON.miningSpawnPointZ.get());
-    }
-    if (Boolean.TRUE.equals(COMMON.voidUseCustomSpawnPoint.get())) {
-      log.info("{} Using custom spawn point {} {} {} for void dimension",
-          Constants.LOG_TELEPORT_MANAGER_PREFIX, COMMON.voidSpawnPointX.get(),
-          COMMON.voidSpawnPointY.get(), COMMON.voidSpawnPointZ.get());
+    for (ManagedDimension managedDimension : ManagedDimensionRegistry.get().getAll()) {
+      DimensionSettings settings = managedDimension.getSettings();
+      if (settings.useCustomSpawnPoint) {
+        log.info("{} Using custom spawn point {} {} {} for {} dimension",
+            Constants.LOG_TELEPORT_MANAGER_PREFIX, settings.spawnPointX, settings.spawnPointY,
+            settings.spawnPointZ, managedDimension.getId());
+      }
     }
     if (ModList.get().isLoaded("ftbessentials")) {
       log.info("Enable FTB Essentials integration.");
     }
   }
 
-  public static boolean teleportToDefaultDimension(ServerPlayer player) {
-    ServerLevel defaultDimension = DimensionManager.getDefaultDimension();
-    boolean isSameDimension = player.level == defaultDimension;
-    boolean successfullyTeleported = false;
-    if (Boolean.TRUE.equals(COMMON.defaultUseCustomSpawnPoint.get())) {
-      successfullyTeleported =
-          teleportPlayer(player, defaultDimension, COMMON.defaultSpawnPointX.get(),
-              COMMON.defaultSpawnPointY.get(), COMMON.defaultSpawnPointZ.get());
-    } else {
-      successfullyTeleported = teleportPlayer(player, defaultDimension);
-    }
+  public static boolean teleportToDimension(ServerPlayer player,
+      ManagedDimension managedDimension, ServerLevel dimension) {
+    boolean isSameDimension = player.level == dimension;
+    boolean successfullyTeleported = teleportPlayer(player, managedDimension, dimension);
     if (successfullyTeleported && !isSameDimension) {
-      player.sendSystemMessage(Component.translatable(Constants.TEXT_PREFIX + "welcome_to_default",
-          fishingCommand, gamingCommand, lobbyCommand, miningCommand, spawnCommand, voidCommand));
+      player.sendSystemMessage(getWelcomeMessage(managedDimension));
     }
     return successfullyTeleported;
   }
 
-  public static boolean teleportToFishingDimension(ServerPlayer player) {
-    ServerLevel fishingDimension = DimensionManager.getFishingDimension();
-    boolean isSameDimension = player.level == fishingDimension;
-    boolean successfullyTeleported = false;
-    if (Boolean.TRUE.equals(COMMON.fishingUseCustomSpawnPoint.get())) {
-      successfullyTeleported =
-          teleportPlayer(player, fishingDimension, COMMON.fishingSpawnPointX.get(),
-              COMMON.fishingSpawnPointY.get(), COMMON.fishingSpawnPointZ.get());
-    } else {
-      successfullyTeleported =
-          teleportPlayer(player, fishingDimension, defaultFishingSpawnPoint.getX(),
-              defaultFishingSpawnPoint.getY(), defaultFishingSpawnPoint.getZ());
+  private static Component getWelcomeMessage(ManagedDimension managedDimension) {
+    if (managedDimension.getRole() == DimensionRole.HUB) {
+      return Component.translatable(Constants.TEXT_PREFIX + "welcome_to_hub",
+          managedDimension.getDimensionName(), lobbyCommand, spawnCommand);
     }
-    if (successfullyTeleported && !isSameDimension) {
-      player.sendSystemMessage(Component.translatable(Constants.TEXT_PREFIX + "welcome_to_fishing",
-          fishingCommand, gamingCommand, lobbyCommand, miningCommand, spawnCommand, voidCommand));
-    }
-    return successfullyTeleported;
+    // Built-in dimensions are using their id for the welcome message, like "welcome_to_lobby".
+    return Component.translatable(Constants.TEXT_PREFIX + "welcome_to_" + managedDimension.getId(),
+        fishingCommand, gamingCommand, lobbyCommand, miningCommand, spawnCommand, voidCommand);
   }
 
-  public static boolean teleportToGamingDimension(ServerPlayer player) {
-    ServerLevel gamingDimension = DimensionManager.getGamingDimension();
-    boolean isSameDimension = player.level == gamingDimension;
-    boolean successfullyTeleported = false;
-    if (Boolean.TRUE.equals(COMMON.gamingUseCustomSpawnPoint.get())) {
-      successfullyTeleported =
-          teleportPlayer(player, gamingDimension, COMMON.gamingSpawnPointX.get(),
-              COMMON.gamingSpawnPointY.get(), COMMON.gamingSpawnPointZ.get());
-    } else {
-      successfullyTeleported =
-          teleportPlayer(player, gamingDimension, defaultGamingSpawnPoint.getX(),
-              defaultGamingSpawnPoint.getY(), defaultGamingSpawnPoint.getZ());
+  /**
+   * Returns the spawn point or one of the additional landing pads for the next arrival.
+   */
+  public static BlockPos selectSpawnPoint(ManagedDimension managedDimension,
+      ServerLevel dimension) {
+    BlockPos spawnPoint = getSpawnPoint(managedDimension, dimension);
+    if (managedDimension.getSettings().landingPads.isEmpty()) {
+      return spawnPoint;
     }
-    if (successfullyTeleported && !isSameDimension) {
-      player.sendSystemMessage(Component.translatable(Constants.TEXT_PREFIX + "welcome_to_gaming",
-          fishingCommand, gamingCommand, lobbyCommand, miningCommand, spawnCommand, voidCommand));
-    }
-    return successfullyTeleported;
+    return LandingPadSelector.select(managedDimension, dimension, spawnPoint);
   }
 
-  public static boolean teleportToLobbyDimension(ServerPlayer player) {
-    ServerLevel lobbyDimension = DimensionManager.getLobbyDimension();
-    boolean isSameDimension = player.level == lobbyDimension;
-    boolean successfullyTeleported = false;
-    if (Boolean.TRUE.equals(COMMON.lobbyUseCustomSpawnPoint.get())) {
-      successfullyTeleported = teleportPlayer(player, lobbyDimension, COMMON.lobbySpawnPointX.get(),
-          COMMON.lobbySpawnPointY.get(), COMMON.lobbySpawnPointZ.get());
-    } else {
-      successfullyTeleported = teleportPlayer(player, lobbyDimension, defaultLobbySpawnPoint.getX(),
-          defaultLobbySpawnPoint.getY(), defaultLobbySpawnPoint.getZ());
+  public static BlockPos getSpawnPoint(ManagedDimension managedDimension, ServerLevel dimension) {
+    DimensionSettings settings = managedDimension.getSettings();
+    if (settings.useCustomSpawnPoint) {
+      return new BlockPos(settings.spawnPointX, settings.spawnPointY, settings.spawnPointZ);
+    }
+    switch (managedDimension.getRole()) {
+      case FISHING:
+        return defaultFishingSpawnPoint;
+      case GAMING:
+        return defaultGamingSpawnPoint;
+      case LOBBY:
+        return defaultLobbySpawnPoint;
+      case MINING:
+        return defaultMiningSpawnPoint;
+      case VOID:
+        return defaultVoidSpawnPoint;
+      default:
+        return dimension.getSharedSpawnPos();
     }
-    if (successfullyTeleported && !isSameDimension) {
-      player.sendSystemMessage(Component.translatable(Constants.TEXT_PREFIX + "welcome_to_lobby",
-          fishingCommand, gamingCommand, lobbyCommand, miningCommand, spawnCommand, voidCommand));
-    }
-    return successfullyTeleported;
-  }
-
-  public static boolean teleportToMiningDimension(ServerPlayer player) {
-    ServerLevel miningDimension = DimensionManager.getMiningDimension();
-    boolean isSameDimension = player.level == miningDimension;
-    boolean successfullyTeleported = false;
-    if (Boolean.TRUE.equals(COMMON.miningUseCustomSpawnPoint.get())) {
-      successfullyTeleported =
-          teleportPlayer(player, miningDimension, COMMON.miningSpawnPointX.get(),
-              COMMON.miningSpawnPointY.get(), COMMON.miningSpawnPointZ.get());
-    } else {
-      successfullyTeleported =
-          teleportPlayer(player, miningDimension, defaultMiningSpawnPoint.getX(),
-              defaultMiningSpawnPoint.getY(), defaultMiningSpawnPoint.getZ());
-    }
-    if (successfullyTeleported && !isSameDimension) {
-      player.sendSystemMessage(Component.translatable(Constants.TEXT_PREFIX + "welcome_to_mining",
-          fishingCommand, gamingCommand, lobbyCommand, miningCommand, spawnCommand, voidCommand));
-    }
-    return successfullyTeleported;
-  }
-
-  public static boolean teleportToVoidDimension(ServerPlayer player) {
-    ServerLevel voidDimension = DimensionManager.getVoidDimension();
-    boolean isSameDimension = player.level == voidDimension;
-    boolean successfullyTeleported = false;
-    if (Boolean.TRUE.equals(COMMON.voidUseCustomSpawnPoint.get())) {
-      successfullyTeleported = teleportPlayer(player, voidDimension, COMMON.voidSpawnPointX.get(),
-          COMMON.voidSpawnPointY.get(), COMMON.voidSpawnPointZ.get());
-    } else {
-      successfullyTeleported = teleportPlayer(player, voidDimension, defaultVoidSpawnPoint.getX(),
-          defaultVoidSpawnPoint.getY(), defaultVoidSpawnPoint.getZ());
-    }
-    if (successfullyTeleported && !isSameDimension) {
-      player.sendSystemMessage(Component.translatable(Constants.TEXT_PREFIX + "welcome_to_void",
-          fishingCommand, gamingCommand, lobbyCommand, miningCommand, spawnCommand, voidCommand));
-    }
-    return successfullyTeleported;
   }
 
-  private static boolean teleportPlayer(ServerPlayer player, ServerLevel dimension) {
+  private static boolean teleportPlayer(ServerPlayer player, ManagedDimension managedDimension,
+      ServerLevel dimension) {
     // Ignore client side levels and if dimension was not found.
     if (player.getLevel().isClientSide() || dimension == null) {
       return false;
     }
-    BlockPos sharedSpawnPos = dimension.getSharedSpawnPos();
-    return teleportPlayer(player, dimension, sharedSpawnPos.getX(), sharedSpawnPos.getY(),
-        sharedSpawnPos.getZ());
+    DimensionIdleManager.activate(managedDimension);
+    BlockPos landingPad = selectSpawnPoint(managedDimension, dimension);
+    return teleportPlayer(player, dimension, landingPad.getX(), landingPad.getY(),
+        landingPad.getZ());
   }
 
   private static boolean teleportPlayer(ServerPlayer player, ServerLevel dimension, int x, int y,
@@ -255,17 +178,21 @@ public class TeleporterManager {
     if (player.getLevel().isClientSide() || dimension == null) {
       return false;
     }
+    long startTimer = LobbyStats.startTimer();
+    LobbyStats.increment(LobbyStats.Counter.TELEPORTS);
 
     // If we are already in the same dimension use a simple teleport instead.
     if (player.level == dimension) {
       addTeleportHistory(player);
       player.teleportTo(x, y, z);
+      LobbyStats.stopTimer(LobbyStats.Timer.TELEPORT, startTimer);
       return true;
     }
 
     // Use dimensional teleporter for the player.
     addTeleportHistory(player);
     player.teleportTo(dimension, x, y, z, player.getYRot(), player.getXRot());
+    LobbyStats.stopTimer(LobbyStats.Timer.TELEPORT, startTimer);
     return true;
   }
 
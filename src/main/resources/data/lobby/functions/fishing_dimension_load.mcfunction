@@ -18,28 +18,28 @@ setblock 32 43 -17 minecraft:structure_block{mode: "LOAD", name: "lobby:fishing/
 setblock 32 44 -17 minecraft:redstone_block
 
 # Add NPCs with AI but without movement
-summon villager 47 52 1 {Rotation: [180f, 0f], NoAI: 0b, PersistenceRequired: 1b, Invulnerable: 1b, VillagerData: {profession: "fisherman", type: "swamp"}, Attributes: [{Name: "generic.movement_speed", Base: 0d}]}
+summon villager 47 52 1 {Tags: ["lobby_decorative"], Rotation: [180f, 0f], NoAI: 0b, PersistenceRequired: 1b, Invulnerable: 1b, VillagerData: {profession: "fisherman", type: "swamp"}, Attributes: [{Name: "generic.movement_speed", Base: 0d}]}
 
 # Add decoration mobs like parrots
-summon parrot 44 56 24 {Rotation: [180f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 0}
-summon parrot 22 66 19 {Rotation: [90f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 1}
-summon parrot 14 61 27 {Rotation: [90f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 2}
-summon parrot 28 60 -7 {Rotation: [225f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 3}
-summon parrot 24 56 5 {Rotation: [0f, 45f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 4}
+summon parrot 44 56 24 {Tags: ["lobby_decorative"], Rotation: [180f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 0}
+summon parrot 22 66 19 {Tags: ["lobby_decorative"], Rotation: [90f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 1}
+summon parrot 14 61 27 {Tags: ["lobby_decorative"], Rotation: [90f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 2}
+summon parrot 28 60 -7 {Tags: ["lobby_decorative"], Rotation: [225f, 0f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 3}
+summon parrot 24 56 5 {Tags: ["lobby_decorative"], Rotation: [0f, 45f], NoAI: 1b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 1b, Variant: 4}
 
 # Add moving mobs like cats
-summon cat 45 60 2 {Rotation: [0f, 0f], NoAI: 0b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 0b}
+summon cat 45 60 2 {Tags: ["lobby_decorative"], Rotation: [0f, 0f], NoAI: 0b, PersistenceRequired: 1b, Invulnerable: 1b, Sitting: 0b}
 
 # Add some additional fish for decoration
-summon tropical_fish 25 48 0 {PersistenceRequired: 1b, Invulnerable: 1b, Variant: 65536}
-summon tropical_fish 31 48 2 {PersistenceRequired: 1b, Invulnerable: 1b, Variant: 50660352}
-summon tropical_fish 29 43 19 {PersistenceRequired: 1b, Invulnerable: 1b, Variant: 67371009}
-summon tropical_fish 63 47 30 {PersistenceRequired: 1b, Invulnerable: 1b, Variant: 101253888}
-summon tropical_fish 51 47 -13 {PersistenceRequired: 1b, Invulnerable: 1b, Variant: 16778497}
-summon tropical_fish 28 47 -17 {PersistenceRequired: 1b, Invulnerable: 1b, Variant: 117441793}
-summon pufferfish 23 48 -1 {PersistenceRequired: 1b, Invulnerable: 1b}
-summon salmon 22 47 9 {PersistenceRequired: 1b, Invulnerable: 1b}
-summon cod 28 47 9 {PersistenceRequired: 1b, Invulnerable: 1b}
+summon tropical_fish 25 48 0 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b, Variant: 65536}
+summon tropical_fish 31 48 2 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b, Variant: 50660352}
+summon tropical_fish 29 43 19 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b, Variant: 67371009}
+summon tropical_fish 63 47 30 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b, Variant: 101253888}
+summon tropical_fish 51 47 -13 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b, Variant: 16778497}
+summon tropical_fish 28 47 -17 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b, Variant: 117441793}
+summon pufferfish 23 48 -1 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b}
+summon salmon 22 47 9 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b}
+summon cod 28 47 9 {Tags: ["lobby_decorative"], PersistenceRequired: 1b, Invulnerable: 1b}
 
 # Remove force loaded chunks
 forceload remove all
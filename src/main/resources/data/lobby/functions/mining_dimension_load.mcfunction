@@ -13,7 +13,7 @@ setblock 179 8 548 minecraft:structure_block{mode: "LOAD", name: "lobby:mining/m
 setblock 179 9 548 minecraft:redstone_block
 
 # Add NPC with AI
-summon villager 199 13 564 {Rotation: [-45f, 0f], NoAI: 0b, PersistenceRequired: 1b, Invulnerable: 1b, VillagerData: {profession: "farmer", type: "savanna"}}
+summon villager 199 13 564 {Tags: ["lobby_decorative"], Rotation: [-45f, 0f], NoAI: 0b, PersistenceRequired: 1b, Invulnerable: 1b, VillagerData: {profession: "farmer", type: "savanna"}}
 
 # Remove force loaded chunks
 forceload remove all